@@ -0,0 +1,472 @@
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import edu.princeton.cs.algs4.Digraph;
+import edu.princeton.cs.algs4.Picture;
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+/**
+ * Inputs and entry points for the JMH benchmarks in org.pg.benchmarks.
+ *
+ * The algorithms live in the unnamed package, which a named package cannot
+ * import and which JMH refuses for benchmark classes. So every factory here
+ * builds its input once from a fixed seed and returns the call to measure, and
+ * the benchmark classes look the factories up by name through
+ * org.pg.benchmarks.Workload.
+ */
+public final class Workloads {
+
+    private static final long SEED = 42L;
+    private static final int QUERIES = 1024;
+
+    private Workloads() {
+    }
+
+    // one seeded PercolationStats trial on an n-by-n grid per call
+    public static Supplier<Object> percolationTrial(int n, String mode) {
+        PercolationStats.TrialMode trialMode = PercolationStats.TrialMode.valueOf(mode);
+        long[] seed = { SEED };
+        return () -> new PercolationStats(n, 1, seed[0]++, null, trialMode).mean();
+    }
+
+    // KdTree built from points uniform in the unit square, one insert per point
+    public static Supplier<Object> kdTreeBuild(int points) {
+        Point2D[] input = unitSquarePoints(points, new Random(SEED));
+        return () -> {
+            KdTree tree = new KdTree();
+            for (Point2D p : input) {
+                tree.insert(p);
+            }
+            return tree;
+        };
+    }
+
+    // KdTree.nearest, cycling through uniform query points
+    public static Supplier<Object> kdTreeNearest(int points) {
+        Random random = new Random(SEED);
+        KdTree tree = new KdTree();
+        for (Point2D p : unitSquarePoints(points, random)) {
+            tree.insert(p);
+        }
+        Point2D[] queries = unitSquarePoints(QUERIES, random);
+        int[] next = { 0 };
+        return () -> tree.nearest(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // KdTree.range, cycling through squares expected to hold about 16 points
+    public static Supplier<Object> kdTreeRange(int points) {
+        Random random = new Random(SEED);
+        KdTree tree = new KdTree();
+        for (Point2D p : unitSquarePoints(points, random)) {
+            tree.insert(p);
+        }
+        RectHV[] queries = squares(QUERIES, Math.sqrt(16.0 / points), random);
+        int[] next = { 0 };
+        return () -> tree.range(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // KdTree.rangeCount, on the same points and queries as kdTreeRange
+    public static Supplier<Object> kdTreeRangeCount(int points) {
+        Random random = new Random(SEED);
+        KdTree tree = new KdTree();
+        for (Point2D p : unitSquarePoints(points, random)) {
+            tree.insert(p);
+        }
+        RectHV[] queries = squares(QUERIES, Math.sqrt(16.0 / points), random);
+        int[] next = { 0 };
+        return () -> tree.rangeCount(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // StaticKdTree bulk-loaded from points uniform in the unit square
+    public static Supplier<Object> staticKdTreeBuild(int points) {
+        Point2D[] input = unitSquarePoints(points, new Random(SEED));
+        return () -> new StaticKdTree(input);
+    }
+
+    // StaticKdTree.nearest, on the same points and queries as kdTreeNearest
+    public static Supplier<Object> staticKdTreeNearest(int points) {
+        Random random = new Random(SEED);
+        StaticKdTree tree = new StaticKdTree(unitSquarePoints(points, random));
+        Point2D[] queries = unitSquarePoints(QUERIES, random);
+        int[] next = { 0 };
+        return () -> tree.nearest(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // StaticKdTree.range, on the same points and queries as kdTreeRange
+    public static Supplier<Object> staticKdTreeRange(int points) {
+        Random random = new Random(SEED);
+        StaticKdTree tree = new StaticKdTree(unitSquarePoints(points, random));
+        RectHV[] queries = squares(QUERIES, Math.sqrt(16.0 / points), random);
+        int[] next = { 0 };
+        return () -> tree.range(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // GridPointSET built from the same points as kdTreeBuild
+    public static Supplier<Object> gridPointSetBuild(int points) {
+        Point2D[] input = unitSquarePoints(points, new Random(SEED));
+        return () -> {
+            GridPointSET grid = new GridPointSET();
+            for (Point2D p : input) {
+                grid.insert(p);
+            }
+            return grid;
+        };
+    }
+
+    // GridPointSET.nearest, on the same points and queries as kdTreeNearest
+    public static Supplier<Object> gridPointSetNearest(int points) {
+        Random random = new Random(SEED);
+        GridPointSET grid = new GridPointSET();
+        for (Point2D p : unitSquarePoints(points, random)) {
+            grid.insert(p);
+        }
+        Point2D[] queries = unitSquarePoints(QUERIES, random);
+        int[] next = { 0 };
+        return () -> grid.nearest(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // GridPointSET.range, on the same points and queries as kdTreeRange
+    public static Supplier<Object> gridPointSetRange(int points) {
+        Random random = new Random(SEED);
+        GridPointSET grid = new GridPointSET();
+        for (Point2D p : unitSquarePoints(points, random)) {
+            grid.insert(p);
+        }
+        RectHV[] queries = squares(QUERIES, Math.sqrt(16.0 / points), random);
+        int[] next = { 0 };
+        return () -> grid.range(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // exact VectorKdTree.nearest on points uniform in the unit hypercube
+    public static Supplier<Object> vectorKdTreeNearest(int points, int dimension) {
+        return vectorKdTreeNearest(points, dimension, 0.0);
+    }
+
+    // (1 + epsilon)-approximate VectorKdTree.nearest on the same input
+    public static Supplier<Object> vectorKdTreeApproximateNearest(int points, int dimension, double epsilon) {
+        return vectorKdTreeNearest(points, dimension, epsilon);
+    }
+
+    private static Supplier<Object> vectorKdTreeNearest(int points, int dimension, double epsilon) {
+        Random random = new Random(SEED);
+        VectorKdTree tree = new VectorKdTree(dimension, uniform(points * dimension, random));
+        double[][] queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = uniform(dimension, random);
+        }
+        int[] next = { 0 };
+        return () -> tree.nearest(queries[next[0]++ & (QUERIES - 1)], epsilon);
+    }
+
+    // A* Solver on a board scrambled by a random walk of the given length
+    public static Supplier<Object> solver(int dimension, int moves) {
+        Board initial = scrambledBoard(dimension, moves, new Random(SEED));
+        return () -> new Solver(initial).moves();
+    }
+
+    // SolverWith2PQ on the same boards as solver
+    public static Supplier<Object> solverWith2PQ(int dimension, int moves) {
+        Board initial = scrambledBoard(dimension, moves, new Random(SEED));
+        return () -> new SolverWith2PQ(initial).moves();
+    }
+
+    // IdaSolver on the same boards as solver
+    public static Supplier<Object> idaSolver(int dimension, int moves) {
+        Board initial = scrambledBoard(dimension, moves, new Random(SEED));
+        return () -> new IdaSolver(initial).moves();
+    }
+
+    // Solver ordered by a pattern database on the same boards as solver; the
+    // 15-puzzle uses a 5-5-5 partition, whose tables build in seconds rather
+    // than the minute the default 6-6-3 tables take
+    public static Supplier<Object> solverPatternDatabase(int dimension, int moves) {
+        Board initial = scrambledBoard(dimension, moves, new Random(SEED));
+        PatternDatabase database = dimension == 4
+                ? PatternDatabase.build(4, new int[][] { { 1, 2, 3, 5, 6 }, { 4, 7, 8, 11, 12 },
+                        { 9, 10, 13, 14, 15 } })
+                : PatternDatabase.build(dimension);
+        return () -> new Solver(initial, database).moves();
+    }
+
+    // SeamCarver.findVerticalSeam on a random picture
+    public static Supplier<Object> seamCarverVerticalSeam(int width, int height) {
+        SeamCarver carver = new SeamCarver(randomPicture(width, height, new Random(SEED)));
+        return carver::findVerticalSeam;
+    }
+
+    // SeamCarver.findHorizontalSeam on a random picture
+    public static Supplier<Object> seamCarverHorizontalSeam(int width, int height) {
+        SeamCarver carver = new SeamCarver(randomPicture(width, height, new Random(SEED)));
+        return carver::findHorizontalSeam;
+    }
+
+    // a fresh SeamCarver that finds and removes one vertical seam per call
+    public static Supplier<Object> seamCarverCarve(int width, int height) {
+        Picture picture = randomPicture(width, height, new Random(SEED));
+        return () -> {
+            SeamCarver carver = new SeamCarver(picture);
+            carver.removeVerticalSeam(carver.findVerticalSeam());
+            return carver;
+        };
+    }
+
+    // BoggleSolver.getAllValidWords on a random size-by-size board against a
+    // dictionary of random words and words spelled along board paths
+    public static Supplier<Object> boggle(int size) {
+        Random random = new Random(SEED);
+        char[][] letters = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                letters[i][j] = (char) ('A' + random.nextInt(26));
+            }
+        }
+        BoggleBoard board = new BoggleBoard(letters);
+        List<String> dictionary = new ArrayList<>();
+        for (int w = 0; w < 20000; w++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(6);
+            if (w % 2 == 0) {
+                int row = random.nextInt(size);
+                int col = random.nextInt(size);
+                for (int i = 0; i < length; i++) {
+                    word.append(letters[row][col]);
+                    row = Math.min(size - 1, Math.max(0, row + random.nextInt(3) - 1));
+                    col = Math.min(size - 1, Math.max(0, col + random.nextInt(3) - 1));
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    word.append((char) ('A' + random.nextInt(26)));
+                }
+            }
+            dictionary.add(word.toString());
+        }
+        BoggleSolver solver = new BoggleSolver(dictionary.toArray(new String[dictionary.size()]));
+        return () -> solver.getAllValidWords(board);
+    }
+
+    // SAP.length between random vertices of a WordNet-like rooted DAG where
+    // every vertex but the root has one or two edges to earlier vertices
+    public static Supplier<Object> sapLength(int vertices) {
+        Random random = new Random(SEED);
+        Digraph digraph = new Digraph(vertices);
+        for (int v = 1; v < vertices; v++) {
+            digraph.addEdge(v, random.nextInt(v));
+            if (v > 1 && random.nextInt(4) == 0) {
+                digraph.addEdge(v, random.nextInt(v));
+            }
+        }
+        SAP sap = new SAP(digraph);
+        int[] from = new int[QUERIES];
+        int[] to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(vertices);
+            to[i] = random.nextInt(vertices);
+        }
+        int[] next = { 0 };
+        return () -> {
+            int i = next[0]++ & (QUERIES - 1);
+            return sap.length(from[i], to[i]);
+        };
+    }
+
+    // CircularSuffixArray, the sorting step of BurrowsWheeler.transform (which
+    // itself is bound to standard input), over random uppercase text
+    public static Supplier<Object> circularSuffixArray(int length) {
+        Random random = new Random(SEED);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('A' + random.nextInt(26)));
+        }
+        String input = text.toString();
+        return () -> new CircularSuffixArray(input);
+    }
+
+    // BaseballElimination: read a random division and decide every team
+    public static Supplier<Object> baseballElimination(int teams) {
+        String teamFile = writeDivision(teams, new Random(SEED));
+        return () -> {
+            BaseballElimination division = new BaseballElimination(teamFile);
+            int eliminated = 0;
+            for (String team : division.teams()) {
+                if (division.isEliminated(team)) {
+                    eliminated++;
+                }
+            }
+            return eliminated;
+        };
+    }
+
+    // FastCollinearPoints on random points with a few planted lines
+    public static Supplier<Object> fastCollinear(int points) {
+        Point[] input = collinearInput(points, new Random(SEED));
+        return () -> new FastCollinearPoints(input).segments();
+    }
+
+    // FastCollinearPoints with its pivots spread over the common pool
+    public static Supplier<Object> fastCollinearParallel(int points) {
+        Point[] input = collinearInput(points, new Random(SEED));
+        return () -> new FastCollinearPoints(input, ForkJoinPool.commonPool()).segments();
+    }
+
+    // HashCollinearPoints on the same input as fastCollinear
+    public static Supplier<Object> hashCollinear(int points) {
+        Point[] input = collinearInput(points, new Random(SEED));
+        return () -> new HashCollinearPoints(input).segments();
+    }
+
+    // BruteCollinearPoints on the same input as fastCollinear
+    public static Supplier<Object> bruteCollinear(int points) {
+        Point[] input = collinearInput(points, new Random(SEED));
+        return () -> new BruteCollinearPoints(input).segments();
+    }
+
+    // BruteCollinearPoints with its first points spread over the common pool
+    public static Supplier<Object> bruteCollinearParallel(int points) {
+        Point[] input = collinearInput(points, new Random(SEED));
+        return () -> new BruteCollinearPoints(input, ForkJoinPool.commonPool()).segments();
+    }
+
+    private static Point2D[] unitSquarePoints(int count, Random random) {
+        Point2D[] points = new Point2D[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = new Point2D(random.nextDouble(), random.nextDouble());
+        }
+        return points;
+    }
+
+    private static double[] uniform(int count, Random random) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextDouble();
+        }
+        return values;
+    }
+
+    private static RectHV[] squares(int count, double side, Random random) {
+        RectHV[] squares = new RectHV[count];
+        for (int i = 0; i < count; i++) {
+            double x = random.nextDouble() * (1 - side);
+            double y = random.nextDouble() * (1 - side);
+            squares[i] = new RectHV(x, y, x + side, y + side);
+        }
+        return squares;
+    }
+
+    private static Board scrambledBoard(int dimension, int moves, Random random) {
+        int[] tiles = new int[dimension * dimension];
+        for (int i = 0; i < tiles.length - 1; i++) {
+            tiles[i] = i + 1;
+        }
+        int blank = tiles.length - 1;
+        int previous = -1;
+        for (int m = 0; m < moves; m++) {
+            int row = blank / dimension;
+            int col = blank % dimension;
+            int[] candidates = new int[4];
+            int count = 0;
+            if (row > 0) {
+                candidates[count++] = blank - dimension;
+            }
+            if (row < dimension - 1) {
+                candidates[count++] = blank + dimension;
+            }
+            if (col > 0) {
+                candidates[count++] = blank - 1;
+            }
+            if (col < dimension - 1) {
+                candidates[count++] = blank + 1;
+            }
+            int target;
+            do {
+                target = candidates[random.nextInt(count)];
+            } while (target == previous);
+            tiles[blank] = tiles[target];
+            tiles[target] = 0;
+            previous = blank;
+            blank = target;
+        }
+        int[][] blocks = new int[dimension][dimension];
+        for (int i = 0; i < tiles.length; i++) {
+            blocks[i / dimension][i % dimension] = tiles[i];
+        }
+        return new Board(blocks);
+    }
+
+    private static Picture randomPicture(int width, int height, Random random) {
+        Picture picture = new Picture(width, height);
+        for (int col = 0; col < width; col++) {
+            for (int row = 0; row < height; row++) {
+                picture.set(col, row, new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+            }
+        }
+        return picture;
+    }
+
+    private static String writeDivision(int teams, Random random) {
+        int[][] against = new int[teams][teams];
+        int[] remaining = new int[teams];
+        for (int i = 0; i < teams; i++) {
+            for (int j = i + 1; j < teams; j++) {
+                against[i][j] = random.nextInt(4);
+                against[j][i] = against[i][j];
+                remaining[i] += against[i][j];
+                remaining[j] += against[i][j];
+            }
+        }
+        try {
+            File file = File.createTempFile("division", ".txt");
+            file.deleteOnExit();
+            try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+                out.println(teams);
+                for (int i = 0; i < teams; i++) {
+                    StringBuilder line = new StringBuilder("Team" + i);
+                    line.append(' ').append(40 + random.nextInt(40)).append(' ').append(random.nextInt(80));
+                    line.append(' ').append(remaining[i]);
+                    for (int j = 0; j < teams; j++) {
+                        line.append(' ').append(against[i][j]);
+                    }
+                    out.println(line);
+                }
+            }
+            return file.getAbsolutePath();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write division file", e);
+        }
+    }
+
+    private static Point[] collinearInput(int count, Random random) {
+        List<Point> points = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        // a handful of lines with 4 to 8 points each, then uniform noise
+        for (int line = 0; line < Math.max(1, count / 50) && points.size() + 8 <= count; line++) {
+            int x = random.nextInt(16384);
+            int y = random.nextInt(16384);
+            int dx = 1 + random.nextInt(64);
+            int dy = random.nextInt(129) - 64;
+            int length = 4 + random.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                addDistinct(points, seen, x + i * dx, y + i * dy);
+            }
+        }
+        while (points.size() < count) {
+            addDistinct(points, seen, random.nextInt(32768), random.nextInt(32768));
+        }
+        return points.toArray(new Point[points.size()]);
+    }
+
+    private static void addDistinct(List<Point> points, Set<String> seen, int x, int y) {
+        if (seen.add(x + "," + y)) {
+            points.add(new Point(x, y));
+        }
+    }
+}
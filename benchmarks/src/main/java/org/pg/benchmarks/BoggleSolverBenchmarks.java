@@ -0,0 +1,43 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BoggleSolver.getAllValidWords on random boards and a 20,000 word dictionary.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BoggleSolverBenchmarks {
+
+    @Param({ "4", "16" })
+    public int size;
+
+    private Supplier<Object> solve;
+
+    @Setup
+    public void setUp() {
+        solve = Workload.of("boggle", size);
+    }
+
+    @Benchmark
+    public Object getAllValidWords() {
+        return solve.get();
+    }
+}
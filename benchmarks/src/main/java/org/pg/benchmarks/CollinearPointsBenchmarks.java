@@ -0,0 +1,72 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FastCollinearPoints, HashCollinearPoints and BruteCollinearPoints on random
+ * points with planted lines.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CollinearPointsBenchmarks {
+
+    @Param({ "100", "400" })
+    public int points;
+
+    private Supplier<Object> fast;
+    private Supplier<Object> fastParallel;
+    private Supplier<Object> hash;
+    private Supplier<Object> brute;
+    private Supplier<Object> bruteParallel;
+
+    @Setup
+    public void setUp() {
+        fast = Workload.of("fastCollinear", points);
+        fastParallel = Workload.of("fastCollinearParallel", points);
+        hash = Workload.of("hashCollinear", points);
+        brute = Workload.of("bruteCollinear", points);
+        bruteParallel = Workload.of("bruteCollinearParallel", points);
+    }
+
+    @Benchmark
+    public Object fast() {
+        return fast.get();
+    }
+
+    @Benchmark
+    public Object fastParallel() {
+        return fastParallel.get();
+    }
+
+    @Benchmark
+    public Object hash() {
+        return hash.get();
+    }
+
+    @Benchmark
+    public Object brute() {
+        return brute.get();
+    }
+
+    @Benchmark
+    public Object bruteParallel() {
+        return bruteParallel.get();
+    }
+}
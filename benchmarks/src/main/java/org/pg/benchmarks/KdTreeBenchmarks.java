@@ -0,0 +1,107 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * KdTree, bulk-loaded StaticKdTree and GridPointSET construction and queries
+ * over points uniform in the unit square.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KdTreeBenchmarks {
+
+    @Param({ "1000", "100000" })
+    public int points;
+
+    private Supplier<Object> build;
+    private Supplier<Object> nearest;
+    private Supplier<Object> range;
+    private Supplier<Object> rangeCount;
+    private Supplier<Object> staticBuild;
+    private Supplier<Object> staticNearest;
+    private Supplier<Object> staticRange;
+    private Supplier<Object> gridBuild;
+    private Supplier<Object> gridNearest;
+    private Supplier<Object> gridRange;
+
+    @Setup
+    public void setUp() {
+        build = Workload.of("kdTreeBuild", points);
+        nearest = Workload.of("kdTreeNearest", points);
+        range = Workload.of("kdTreeRange", points);
+        rangeCount = Workload.of("kdTreeRangeCount", points);
+        staticBuild = Workload.of("staticKdTreeBuild", points);
+        staticNearest = Workload.of("staticKdTreeNearest", points);
+        staticRange = Workload.of("staticKdTreeRange", points);
+        gridBuild = Workload.of("gridPointSetBuild", points);
+        gridNearest = Workload.of("gridPointSetNearest", points);
+        gridRange = Workload.of("gridPointSetRange", points);
+    }
+
+    @Benchmark
+    public Object build() {
+        return build.get();
+    }
+
+    @Benchmark
+    public Object nearest() {
+        return nearest.get();
+    }
+
+    @Benchmark
+    public Object range() {
+        return range.get();
+    }
+
+    @Benchmark
+    public Object rangeCount() {
+        return rangeCount.get();
+    }
+
+    @Benchmark
+    public Object staticBuild() {
+        return staticBuild.get();
+    }
+
+    @Benchmark
+    public Object staticNearest() {
+        return staticNearest.get();
+    }
+
+    @Benchmark
+    public Object staticRange() {
+        return staticRange.get();
+    }
+
+    @Benchmark
+    public Object gridBuild() {
+        return gridBuild.get();
+    }
+
+    @Benchmark
+    public Object gridNearest() {
+        return gridNearest.get();
+    }
+
+    @Benchmark
+    public Object gridRange() {
+        return gridRange.get();
+    }
+}
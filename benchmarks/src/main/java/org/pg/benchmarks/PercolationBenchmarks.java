@@ -0,0 +1,46 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One seeded PercolationStats trial per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PercolationBenchmarks {
+
+    @Param({ "64", "256" })
+    public int n;
+
+    @Param({ "SAMPLING", "PERMUTATION" })
+    public String mode;
+
+    private Supplier<Object> trial;
+
+    @Setup
+    public void setUp() {
+        trial = Workload.of("percolationTrial", n, mode);
+    }
+
+    @Benchmark
+    public Object trial() {
+        return trial.get();
+    }
+}
@@ -0,0 +1,57 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SeamCarver seam search and removal on square random pictures.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SeamCarverBenchmarks {
+
+    @Param({ "100", "400" })
+    public int size;
+
+    private Supplier<Object> verticalSeam;
+    private Supplier<Object> horizontalSeam;
+    private Supplier<Object> carve;
+
+    @Setup
+    public void setUp() {
+        verticalSeam = Workload.of("seamCarverVerticalSeam", size, size);
+        horizontalSeam = Workload.of("seamCarverHorizontalSeam", size, size);
+        carve = Workload.of("seamCarverCarve", size, size);
+    }
+
+    @Benchmark
+    public Object findVerticalSeam() {
+        return verticalSeam.get();
+    }
+
+    @Benchmark
+    public Object findHorizontalSeam() {
+        return horizontalSeam.get();
+    }
+
+    @Benchmark
+    public Object carve() {
+        return carve.get();
+    }
+}
@@ -0,0 +1,68 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Solver, SolverWith2PQ and IdaSolver on boards scrambled by a seeded random
+ * walk, and Solver with a pattern database heuristic.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SolverBenchmarks {
+
+    @Param({ "3", "4" })
+    public int dimension;
+
+    @Param({ "10", "20" })
+    public int moves;
+
+    private Supplier<Object> solver;
+    private Supplier<Object> solverWith2PQ;
+    private Supplier<Object> idaSolver;
+    private Supplier<Object> solverPatternDatabase;
+
+    @Setup
+    public void setUp() {
+        solver = Workload.of("solver", dimension, moves);
+        solverWith2PQ = Workload.of("solverWith2PQ", dimension, moves);
+        idaSolver = Workload.of("idaSolver", dimension, moves);
+        solverPatternDatabase = Workload.of("solverPatternDatabase", dimension, moves);
+    }
+
+    @Benchmark
+    public Object solver() {
+        return solver.get();
+    }
+
+    @Benchmark
+    public Object solverWith2PQ() {
+        return solverWith2PQ.get();
+    }
+
+    @Benchmark
+    public Object idaSolver() {
+        return idaSolver.get();
+    }
+
+    @Benchmark
+    public Object solverPatternDatabase() {
+        return solverPatternDatabase.get();
+    }
+}
@@ -0,0 +1,57 @@
+package org.pg.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exact and approximate VectorKdTree nearest-neighbor queries over points
+ * uniform in the unit hypercube.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VectorKdTreeBenchmarks {
+
+    @Param({ "100000" })
+    public int points;
+
+    @Param({ "3", "8", "16" })
+    public int dimension;
+
+    @Param({ "0.5" })
+    public double epsilon;
+
+    private Supplier<Object> nearest;
+    private Supplier<Object> approximateNearest;
+
+    @Setup
+    public void setUp() {
+        nearest = Workload.of("vectorKdTreeNearest", points, dimension);
+        approximateNearest = Workload.of("vectorKdTreeApproximateNearest", points, dimension, epsilon);
+    }
+
+    @Benchmark
+    public Object nearest() {
+        return nearest.get();
+    }
+
+    @Benchmark
+    public Object approximateNearest() {
+        return approximateNearest.get();
+    }
+}
@@ -0,0 +1,38 @@
+package org.pg.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * Looks up a factory of the unnamed-package Workloads class by name. This
+ * happens once per trial in a benchmark's setup; the measured call is a plain
+ * Supplier.get().
+ */
+final class Workload {
+
+    private Workload() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> of(String factory, Object... args) {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Integer) {
+                types[i] = int.class;
+            } else if (args[i] instanceof Double) {
+                types[i] = double.class;
+            } else {
+                types[i] = args[i].getClass();
+            }
+        }
+        try {
+            Method method = Class.forName("Workloads").getMethod(factory, types);
+            return (Supplier<Object>) method.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Workload " + factory + " failed", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No workload " + factory, e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * A lattice over an arbitrary neighbor graph, stored in compressed sparse row
+ * form: the neighbors of site s are targets[offsets[s]..offsets[s + 1]).
+ * Top and bottom membership are bit-packed.
+ */
+public class AdjacencyLattice implements Lattice {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final long[] topBits;
+    private final long[] bottomBits;
+    private final int maxDegree;
+
+    // adjacency[s] lists the neighbors of site s; the graph is used as given,
+    // so an undirected lattice must list every edge in both directions. There
+    // must be at least one top and one bottom site
+    public AdjacencyLattice(int[][] adjacency, int[] topSites, int[] bottomSites) {
+        if (adjacency == null || topSites == null || bottomSites == null || topSites.length == 0
+                || bottomSites.length == 0) {
+            throw new IllegalArgumentException("Empty adjacency or boundary");
+        }
+        int sites = adjacency.length;
+        this.offsets = new int[sites + 1];
+        int degree = 0;
+        for (int s = 0; s < sites; s++) {
+            if (adjacency[s] == null) {
+                throw new IllegalArgumentException("Empty adjacency for site " + s);
+            }
+            offsets[s + 1] = offsets[s] + adjacency[s].length;
+            degree = Math.max(degree, adjacency[s].length);
+        }
+        this.maxDegree = degree;
+        this.targets = new int[offsets[sites]];
+        for (int s = 0; s < sites; s++) {
+            for (int i = 0; i < adjacency[s].length; i++) {
+                targets[offsets[s] + i] = checkSite(adjacency[s][i], sites);
+            }
+        }
+        this.topBits = toBits(topSites, sites);
+        this.bottomBits = toBits(bottomSites, sites);
+    }
+
+    private static int checkSite(int site, int sites) {
+        if (site < 0 || site >= sites) {
+            throw new IllegalArgumentException("Invalid site index " + site);
+        }
+        return site;
+    }
+
+    private static long[] toBits(int[] members, int sites) {
+        long[] bits = new long[(sites >>> 6) + 1];
+        for (int site : members) {
+            checkSite(site, sites);
+            bits[site >>> 6] |= 1L << site;
+        }
+        return bits;
+    }
+
+    @Override
+    public int sites() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int maxDegree() {
+        return maxDegree;
+    }
+
+    @Override
+    public int neighbors(int site, int[] out) {
+        int from = offsets[site];
+        int count = offsets[site + 1] - from;
+        System.arraycopy(targets, from, out, 0, count);
+        return count;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        return (topBits[site >>> 6] & (1L << site)) != 0;
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        return (bottomBits[site >>> 6] & (1L << site)) != 0;
+    }
+}
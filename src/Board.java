@@ -43,6 +43,21 @@ public class Board {
         calcManhattan();
     }
 
+    // board over a copy of the row-major tiles, 0 for the blank
+    static Board of(int[] tiles, int dimension) {
+        return new Board(tiles.clone(), dimension);
+    }
+
+    // copy of the row-major tiles, 0 for the blank
+    int[] tiles() {
+        return blocks.clone();
+    }
+
+    // tile at the row-major position, 0 for the blank
+    int tileAt(int position) {
+        return blocks[position];
+    }
+
     // board dimension n
     public int dimension() {
         return dimension;
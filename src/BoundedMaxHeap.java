@@ -0,0 +1,81 @@
+/**
+ * Max-heap of the best k candidates of a nearest-neighbor search by squared
+ * distance, used by {@link KdTree}. Once full, a candidate enters only by
+ * beating the farthest one, which it replaces. {@link VectorKdTree}, whose
+ * candidates are point indices, keeps the same heap over primitive arrays.
+ */
+class BoundedMaxHeap<T> {
+    private final Object[] items;
+    private final double[] distances;
+    private int size;
+
+    public BoundedMaxHeap(int capacity) {
+        this.items = new Object[capacity + 1];
+        this.distances = new double[capacity + 1];
+    }
+
+    // squared distance a candidate must beat to enter the heap
+    public double bound() {
+        return size < items.length - 1 ? Double.POSITIVE_INFINITY : distances[1];
+    }
+
+    public void offer(T item, double distance) {
+        if (size < items.length - 1) {
+            size++;
+            items[size] = item;
+            distances[size] = distance;
+            swim(size);
+        } else if (distance < distances[1]) {
+            items[1] = item;
+            distances[1] = distance;
+            sink(1);
+        }
+    }
+
+    // number of candidates held
+    public int size() {
+        return size;
+    }
+
+    // empties the heap into sorted, closest first; sorted needs size() slots
+    @SuppressWarnings("unchecked")
+    public T[] drain(T[] sorted) {
+        while (size > 0) {
+            sorted[size - 1] = (T) items[1];
+            exchange(1, size--);
+            items[size + 1] = null;
+            sink(1);
+        }
+        return sorted;
+    }
+
+    private void swim(int k) {
+        while (k > 1 && distances[k / 2] < distances[k]) {
+            exchange(k, k / 2);
+            k = k / 2;
+        }
+    }
+
+    private void sink(int k) {
+        while (2 * k <= size) {
+            int child = 2 * k;
+            if (child < size && distances[child] < distances[child + 1]) {
+                child++;
+            }
+            if (distances[k] >= distances[child]) {
+                break;
+            }
+            exchange(k, child);
+            k = child;
+        }
+    }
+
+    private void exchange(int i, int j) {
+        Object item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        double distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+}
@@ -1,6 +1,9 @@
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
@@ -10,53 +13,87 @@ public class BruteCollinearPoints {
 
     private final List<LineSegment> lineSegments;
 
-    // finds all line segments containing 4 points
+    // finds all maximal line segments containing 4 or more points
     public BruteCollinearPoints(Point[] points) {
-        lineSegments = new ArrayList<>();
+        this(points, null);
+    }
+
+    // finds all maximal line segments containing 4 or more points, spreading
+    // the first point of the quadruples over the pool (on the calling thread
+    // when pool is null); the segments come out in the same order either way
+    public BruteCollinearPoints(Point[] points, ForkJoinPool pool) {
         if (points == null) {
             throw new IllegalArgumentException();
         }
-        preEvaluate(points);
+        Point[] sorted = preEvaluate(points);
         if (points.length < 4) {
-            return;
+            lineSegments = new ArrayList<>();
+        } else if (pool == null) {
+            lineSegments = findCollinearPoints(sorted, 0, sorted.length - 3);
+        } else {
+            lineSegments = pool.invoke(new FirstPointTask(sorted, 0, sorted.length - 3));
         }
-        findCollinearPoints(points);
     }
 
-    private void findCollinearPoints(Point[] points) {
-        for (int i = 0; i < points.length - 3; i++) {
-            Point firstPoint = points[i];
-            boolean matched = false;
-            for (int j = i + 1; j < points.length - 2; j++) {
-                double slope = firstPoint.slopeTo(points[j]);
-                if (matched) {
-                    matched = false;
+    // maximal segments of the lines whose smallest point is sorted[i], for i
+    // in [from, to). Of the quadruples i < j < k < m on such a line only the
+    // one with j and k the two points after i and m the line's largest point
+    // is kept, so a line of 5 or more points yields its segment once. A triple
+    // that is not collinear is dropped before the fourth loop
+    private static List<LineSegment> findCollinearPoints(Point[] sorted, int from, int to) {
+        List<LineSegment> lineSegments = new ArrayList<>();
+        int n = sorted.length;
+        for (int i = from; i < to; i++) {
+            Point first = sorted[i];
+            for (int j = i + 1; j < n - 2; j++) {
+                if (collinearBefore(sorted, i, j)) {
                     continue;
                 }
-                if (slope == Double.NEGATIVE_INFINITY) {
-                    continue;
-                }
-                for (int k = j + 1; k < points.length - 1; k++) {
-                    if (matched) {
-                        break;
-                    }
-
-                    if (Double.compare(slope, firstPoint.slopeTo(points[k])) != 0) {
+                for (int k = j + 1; k < n - 1; k++) {
+                    if (!collinear(first, sorted[j], sorted[k])) {
                         continue;
                     }
-                    for (int m = k + 1; m < points.length; m++) {
-                        if (Double.compare(slope, firstPoint.slopeTo(points[m])) == 0) {
-                            lineSegments.add(createLineSegment(firstPoint, points[j], points[k], points[m]));
-                            matched = true;
+                    for (int m = n - 1; m > k; m--) {
+                        if (collinear(first, sorted[j], sorted[m])) {
+                            lineSegments.add(new LineSegment(first, sorted[m]));
                             break;
                         }
                     }
+                    break;
                 }
             }
         }
+        return lineSegments;
+    }
+
+    // does a point before j other than the pivot i lie on the line through both?
+    private static boolean collinearBefore(Point[] sorted, int i, int j) {
+        for (int h = 0; h < j; h++) {
+            if (h != i && collinear(sorted[i], sorted[j], sorted[h])) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void preEvaluate(Point[] points) {
+    // are the three points on one line? The cross product of q - p and r - p
+    // is exact in longs while the differences fit in an int, and is taken in
+    // BigInteger otherwise; slopes are never computed, so this check stays
+    // independent of the slope code of the faster searches
+    private static boolean collinear(Point p, Point q, Point r) {
+        long dx1 = (long) q.x() - p.x();
+        long dy1 = (long) q.y() - p.y();
+        long dx2 = (long) r.x() - p.x();
+        long dy2 = (long) r.y() - p.y();
+        if ((Math.abs(dx1) | Math.abs(dy1) | Math.abs(dx2) | Math.abs(dy2)) <= Integer.MAX_VALUE) {
+            return dx1 * dy2 == dy1 * dx2;
+        }
+        return BigInteger.valueOf(dx1).multiply(BigInteger.valueOf(dy2))
+                .equals(BigInteger.valueOf(dy1).multiply(BigInteger.valueOf(dx2)));
+    }
+
+    // sorted copy of the points, rejecting null and repeated points
+    private Point[] preEvaluate(Point[] points) {
         Point[] toCheckDuplicates = new Point[points.length];
         for (int i = 0; i < points.length; i++) {
             if (points[i] == null)
@@ -73,12 +110,37 @@ public class BruteCollinearPoints {
                 prevPoint = toCheckDuplicates[i];
             }
         }
+        return toCheckDuplicates;
     }
 
-    private LineSegment createLineSegment(Point firstPoint, Point secondPoint, Point thirdPoint, Point fourthPoint) {
-        Point[] points = { firstPoint, secondPoint, thirdPoint, fourthPoint };
-        Arrays.sort(points);
-        return new LineSegment(points[0], points[3]);
+    // finds the segments of the first points [from, to) by halving the range
+    // down to single points, whose work shrinks with their index; the halves'
+    // lists join in order
+    private static class FirstPointTask extends RecursiveTask<List<LineSegment>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Point[] sorted;
+        private final int from;
+        private final int to;
+
+        public FirstPointTask(Point[] sorted, int from, int to) {
+            this.sorted = sorted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<LineSegment> compute() {
+            if (to - from <= 1) {
+                return findCollinearPoints(sorted, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            FirstPointTask right = new FirstPointTask(sorted, mid, to);
+            right.fork();
+            List<LineSegment> lineSegments = new FirstPointTask(sorted, from, mid).compute();
+            lineSegments.addAll(right.join());
+            return lineSegments;
+        }
     }
 
     // the number of line segments
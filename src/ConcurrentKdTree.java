@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+/**
+ * A 2d-tree for one writer and any number of readers. Nodes are immutable: an
+ * insert copies the nodes on its search path and publishes the new root
+ * through a volatile field, so every query runs against the complete tree as
+ * of one insert, never blocks, and never sees a half-updated size.
+ *
+ * Points are ordered on a node's splitting coordinate, ties broken by the
+ * other coordinate, so every split is exact. The copied path is kept balanced
+ * the scapegoat way: when an insert lands deeper than log_{1/BALANCE}(n), the
+ * lowest ancestor on its path with a child holding more than BALANCE of its
+ * points is rebuilt around medians. Depth thus stays logarithmic even for
+ * sorted or monotone input, which keeps the recursive queries shallow and
+ * inserts amortized O(log n).
+ */
+public class ConcurrentKdTree {
+
+    private static final double BALANCE = 0.7;
+
+    // orders of the vertical and horizontal splits
+    private static final Comparator<Point2D> X_ORDER = new Comparator<Point2D>() {
+
+        @Override
+        public int compare(Point2D a, Point2D b) {
+            return ConcurrentKdTree.compare(a, b, true);
+        }
+    };
+
+    private static final Comparator<Point2D> Y_ORDER = new Comparator<Point2D>() {
+
+        @Override
+        public int compare(Point2D a, Point2D b) {
+            return ConcurrentKdTree.compare(a, b, false);
+        }
+    };
+
+    private volatile Node root;
+    // set by the current insert while its new leaf lies too deep and no
+    // ancestor has been rebuilt yet; only the writer touches it
+    private boolean tooDeep;
+
+    public boolean isEmpty() {
+        // is the set empty?
+        return root == null;
+    }
+
+    public int size() {
+        // number of points in the set
+        Node current = root;
+        return current == null ? 0 : current.size;
+    }
+
+    public synchronized void insert(Point2D p) {
+        // add the point to the set (if it is not already in the set); writers
+        // are serialized, readers are never blocked
+        if (p == null) {
+            throw new IllegalArgumentException("Empty point to insert");
+        }
+        Node current = root;
+        int size = current == null ? 1 : current.size + 1;
+        tooDeep = false;
+        root = insert(current, p, true, 0, (int) (Math.log(size) / Math.log(1 / BALANCE)));
+    }
+
+    // returns node itself when p is already present, so nothing is copied
+    private Node insert(Node node, Point2D p, boolean vertical, int depth, int maxDepth) {
+        if (node == null) {
+            tooDeep = depth > maxDepth;
+            return new Node(p, 1, null, null);
+        }
+        if (node.point.equals(p)) {
+            return node;
+        }
+        Node copy;
+        if (compare(p, node.point, vertical) < 0) {
+            Node left = insert(node.left, p, !vertical, depth + 1, maxDepth);
+            if (left == node.left) {
+                return node;
+            }
+            copy = new Node(node.point, node.size + 1, left, node.right);
+        } else {
+            Node right = insert(node.right, p, !vertical, depth + 1, maxDepth);
+            if (right == node.right) {
+                return node;
+            }
+            copy = new Node(node.point, node.size + 1, node.left, right);
+        }
+        if (tooDeep && Math.max(size(copy.left), size(copy.right)) > BALANCE * copy.size) {
+            tooDeep = false;
+            return rebuild(copy, vertical);
+        }
+        return copy;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // balanced subtree over the node's points, keeping its splitting axis
+    private static Node rebuild(Node node, boolean vertical) {
+        Point2D[] points = new Point2D[node.size];
+        collect(node, points, 0);
+        return build(points, 0, points.length, vertical);
+    }
+
+    // stores the subtree's points from points[next] on; returns the next free slot
+    private static int collect(Node node, Point2D[] points, int next) {
+        if (node == null) {
+            return next;
+        }
+        next = collect(node.left, points, next);
+        points[next++] = node.point;
+        return collect(node.right, points, next);
+    }
+
+    private static Node build(Point2D[] points, int lo, int hi, boolean vertical) {
+        if (lo >= hi) {
+            return null;
+        }
+        Arrays.sort(points, lo, hi, vertical ? X_ORDER : Y_ORDER);
+        int mid = (lo + hi) >>> 1;
+        return new Node(points[mid], hi - lo, build(points, lo, mid, !vertical), build(points, mid + 1, hi, !vertical));
+    }
+
+    // compares on the splitting coordinate, then on the other one
+    private static int compare(Point2D p, Point2D split, boolean vertical) {
+        int compare = vertical ? Double.compare(p.x(), split.x()) : Double.compare(p.y(), split.y());
+        if (compare != 0) {
+            return compare;
+        }
+        return vertical ? Double.compare(p.y(), split.y()) : Double.compare(p.x(), split.x());
+    }
+
+    public int height() {
+        // number of levels in the tree
+        return height(root);
+    }
+
+    private static int height(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        return 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    public boolean contains(Point2D p) {
+        // does the set contain point p?
+        if (p == null) {
+            throw new IllegalArgumentException("Empty point to find");
+        }
+        Node node = root;
+        boolean vertical = true;
+        while (node != null) {
+            if (node.point.equals(p)) {
+                return true;
+            }
+            node = compare(p, node.point, vertical) < 0 ? node.left : node.right;
+            vertical = !vertical;
+        }
+        return false;
+    }
+
+    public Iterable<Point2D> range(RectHV rect) {
+        // all points that are inside the rectangle (or on the boundary)
+        if (rect == null) {
+            throw new IllegalArgumentException();
+        }
+        List<Point2D> pointsInRange = new ArrayList<>();
+        range(rect, root, true, pointsInRange);
+        return pointsInRange;
+    }
+
+    private void range(RectHV rect, Node node, boolean vertical, List<Point2D> pointsInRange) {
+        if (node == null) {
+            return;
+        }
+        double split = vertical ? node.point.x() : node.point.y();
+        // points tied with the split on its coordinate may sit on either side
+        if ((vertical ? rect.xmin() : rect.ymin()) <= split) {
+            range(rect, node.left, !vertical, pointsInRange);
+        }
+        if (rect.contains(node.point)) {
+            pointsInRange.add(node.point);
+        }
+        if ((vertical ? rect.xmax() : rect.ymax()) >= split) {
+            range(rect, node.right, !vertical, pointsInRange);
+        }
+    }
+
+    public Point2D nearest(Point2D p) {
+        // a nearest neighbor in the set to point p; null if the set is empty
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        Node current = root;
+        if (current == null) {
+            return null;
+        }
+        return nearest(p, current, true, current.point, p.distanceSquaredTo(current.point));
+    }
+
+    private Point2D nearest(Point2D p, Node node, boolean vertical, Point2D nearest, double nearestDistance) {
+        if (node == null) {
+            return nearest;
+        }
+        double distance = p.distanceSquaredTo(node.point);
+        if (distance < nearestDistance) {
+            nearest = node.point;
+            nearestDistance = distance;
+        }
+        double axisDistance = vertical ? p.x() - node.point.x() : p.y() - node.point.y();
+        Node near = axisDistance < 0 ? node.left : node.right;
+        Node far = axisDistance < 0 ? node.right : node.left;
+        nearest = nearest(p, near, !vertical, nearest, nearestDistance);
+        nearestDistance = p.distanceSquaredTo(nearest);
+        if (axisDistance * axisDistance < nearestDistance) {
+            nearest = nearest(p, far, !vertical, nearest, nearestDistance);
+        }
+        return nearest;
+    }
+
+    private static class Node {
+        private final Point2D point;
+        private final int size;
+        private final Node left;
+        private final Node right;
+
+        public Node(Point2D point, int size, Node left, Node right) {
+            this.point = point;
+            this.size = size;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+}
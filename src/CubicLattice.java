@@ -0,0 +1,66 @@
+/**
+ * The n-by-n-by-n simple cubic grid: site (layer, row, col) is numbered
+ * layer * n^2 + row * n + col and has up to six axis neighbors. Layer 0 is the
+ * top boundary and layer n-1 the bottom one.
+ */
+public class CubicLattice implements Lattice {
+
+    private final int n;
+    private final int layer;
+
+    public CubicLattice(int n) {
+        if (n <= 0 || (long) n * n * n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid size " + n);
+        }
+        this.n = n;
+        this.layer = n * n;
+    }
+
+    @Override
+    public int sites() {
+        return layer * n;
+    }
+
+    @Override
+    public int maxDegree() {
+        return 6;
+    }
+
+    @Override
+    public int neighbors(int site, int[] out) {
+        int z = site / layer;
+        int rest = site - z * layer;
+        int row = rest / n;
+        int col = rest - row * n;
+        int count = 0;
+        if (z > 0) {
+            out[count++] = site - layer;
+        }
+        if (z < n - 1) {
+            out[count++] = site + layer;
+        }
+        if (row > 0) {
+            out[count++] = site - n;
+        }
+        if (row < n - 1) {
+            out[count++] = site + n;
+        }
+        if (col > 0) {
+            out[count++] = site - 1;
+        }
+        if (col < n - 1) {
+            out[count++] = site + 1;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        return site < layer;
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        return site >= layer * (n - 1);
+    }
+}
@@ -1,6 +1,8 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
@@ -12,15 +14,28 @@ public class FastCollinearPoints {
 
     // finds all line segments containing 4 or more points
     public FastCollinearPoints(Point[] points) {
-        lineSegments = new ArrayList<>();
+        this(points, null);
+    }
+
+    // finds all line segments containing 4 or more points, spreading the
+    // pivots over the pool (on the calling thread when pool is null); the
+    // segments come out in the same order either way
+    public FastCollinearPoints(Point[] points, ForkJoinPool pool) {
         if (points == null) {
             throw new IllegalArgumentException();
         }
         Point[] pointsCopy = evaluateAndGetCopy(points);
         if (points.length < 4) {
+            lineSegments = new ArrayList<>();
             return;
         }
-        findCollinearPoints(points, pointsCopy);
+        int pivots = pointsCopy.length - 3;
+        if (pool == null) {
+            lineSegments = findCollinearPoints(pointsCopy, 0, pivots);
+        } else {
+            int pivotsPerTask = Math.max(1, pivots / (4 * pool.getParallelism()));
+            lineSegments = pool.invoke(new PivotTask(pointsCopy, 0, pivots, pivotsPerTask));
+        }
     }
 
     private Point[] evaluateAndGetCopy(Point[] points) {
@@ -43,40 +58,84 @@ public class FastCollinearPoints {
         return pointsCopy;
     }
 
-    private void findCollinearPoints(Point[] points, Point[] pointsCopy) {
-        int offsetLength = 1;
-        Arrays.sort(points);
-        for (int i = 0; i < points.length - 3; i += offsetLength) {
-            Point pivot = points[i];
-            Arrays.sort(pointsCopy, pivot.slopeOrder());
-
-            double currentSlope = pivot.slopeTo(pointsCopy[0]);
-            int currentLength = 1;
-            for (int j = 1; j < pointsCopy.length; j++) {
-                double calculatedSlope = pivot.slopeTo(pointsCopy[j]);
-                if (Double.compare(calculatedSlope, currentSlope) == 0) {
-                    currentLength++;
-                } else {
-                    currentSlope = calculatedSlope;
-                    if (currentLength >= 3) {
-                        createLineSegment(pivot, pointsCopy, j - currentLength, j - 1);
-                    }
-                    currentLength = 1;
-                }
+    // segments whose smallest point is one of the pivots sorted[from, to).
+    // For each pivot the other points' directions go into primitive arrays and
+    // SlopeSort orders their indices; sorted itself stays untouched
+    private static List<LineSegment> findCollinearPoints(Point[] sorted, int from, int to) {
+        List<LineSegment> lineSegments = new ArrayList<>();
+        int n = sorted.length;
+        int[] order = new int[n];
+        long[] dxs = new long[n];
+        long[] dys = new long[n];
+        for (int j = 0; j < n; j++) {
+            order[j] = j;
+        }
+        for (int i = from; i < to; i++) {
+            Point pivot = sorted[i];
+            for (int j = 0; j < n; j++) {
+                SlopeSort.direction((long) sorted[j].x() - pivot.x(), (long) sorted[j].y() - pivot.y(), dxs, dys, j);
             }
-            if (currentLength >= 3) {
-                createLineSegment(pivot, pointsCopy, pointsCopy.length - currentLength, pointsCopy.length - 1);
+            SlopeSort.sort(order, dxs, dys, 0, n);
+
+            int start = 0;
+            for (int j = 1; j <= n; j++) {
+                int first = order[start];
+                if (j < n && SlopeSort.compare(dxs[order[j]], dys[order[j]], dxs[first], dys[first]) == 0) {
+                    continue;
+                }
+                if (j - start >= 3) {
+                    createLineSegment(sorted, i, order, start, j, lineSegments);
+                }
+                start = j;
             }
         }
+        return lineSegments;
     }
 
-    private void createLineSegment(Point pivot, Point[] points, int start, int end) {
-        Point[] segment = new Point[end - start + 2];
-        System.arraycopy(points, start, segment, 0, end - start + 1);
-        segment[segment.length - 1] = pivot;
-        Arrays.sort(segment);
-        if (pivot.compareTo(segment[0]) == 0) {
-            lineSegments.add(new LineSegment(segment[0], segment[segment.length - 1]));
+    // the points sorted[order[start..end)] share a slope from pivot sorted[i];
+    // indices follow the point order, so the line is reported only when the
+    // pivot has the smallest index
+    private static void createLineSegment(Point[] sorted, int i, int[] order, int start, int end,
+            List<LineSegment> lineSegments) {
+        int min = order[start];
+        int max = order[start];
+        for (int k = start + 1; k < end; k++) {
+            min = Math.min(min, order[k]);
+            max = Math.max(max, order[k]);
+        }
+        if (i < min) {
+            lineSegments.add(new LineSegment(sorted[i], sorted[max]));
+        }
+    }
+
+    // finds the segments of the pivots [from, to) by halving the range; each
+    // leaf sorts its own scratch copy and the halves' lists join in pivot order
+    private static class PivotTask extends RecursiveTask<List<LineSegment>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Point[] sorted;
+        private final int from;
+        private final int to;
+        private final int pivotsPerTask;
+
+        public PivotTask(Point[] sorted, int from, int to, int pivotsPerTask) {
+            this.sorted = sorted;
+            this.from = from;
+            this.to = to;
+            this.pivotsPerTask = pivotsPerTask;
+        }
+
+        @Override
+        protected List<LineSegment> compute() {
+            if (to - from <= pivotsPerTask) {
+                return findCollinearPoints(sorted, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            PivotTask right = new PivotTask(sorted, mid, to, pivotsPerTask);
+            right.fork();
+            List<LineSegment> lineSegments = new PivotTask(sorted, from, mid, pivotsPerTask).compute();
+            lineSegments.addAll(right.join());
+            return lineSegments;
         }
     }
 
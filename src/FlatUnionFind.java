@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * Union-find backed by a flat parent array, with path halving on find and
+ * union by rank. Ranks never exceed log2(n) < 32, so a root's byte holds its
+ * rank in the low 5 bits and its component flags above them, and the whole
+ * structure costs 5 bytes per element.
+ */
+public class FlatUnionFind implements UnionFind {
+
+    private static final int RANK_MASK = 0x1F;
+    private static final int FLAG_SHIFT = 5;
+    private static final int FLAG_MASK = 0x3;
+
+    private final int[] parent;
+    private final byte[] rank;
+    private int count;
+
+    // create n singleton components
+    public FlatUnionFind(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative number of elements: " + n);
+        }
+        this.parent = new int[n];
+        this.rank = new byte[n];
+        reset();
+    }
+
+    @Override
+    public int find(int p) {
+        while (p != parent[p]) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    @Override
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) {
+            return;
+        }
+        int flags = (rank[rootP] | rank[rootQ]) & ~RANK_MASK;
+        int rankP = rank[rootP] & RANK_MASK;
+        int rankQ = rank[rootQ] & RANK_MASK;
+        if (rankP < rankQ) {
+            parent[rootP] = rootQ;
+            rank[rootQ] = (byte) (flags | rankQ);
+        } else if (rankP > rankQ) {
+            parent[rootQ] = rootP;
+            rank[rootP] = (byte) (flags | rankP);
+        } else {
+            parent[rootQ] = rootP;
+            rank[rootP] = (byte) (flags | (rankP + 1));
+        }
+        count--;
+    }
+
+    @Override
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void mark(int p, int flags) {
+        rank[find(p)] |= (flags & FLAG_MASK) << FLAG_SHIFT;
+    }
+
+    @Override
+    public int flags(int p) {
+        return (rank[find(p)] >>> FLAG_SHIFT) & FLAG_MASK;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Arrays.fill(rank, (byte) 0);
+        count = parent.length;
+    }
+}
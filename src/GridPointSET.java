@@ -0,0 +1,264 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.StdDraw;
+
+/**
+ * A set of points indexed by a uniform grid, with the {@link PointSET} API.
+ * For points spread evenly over their bounding box it inserts and answers
+ * queries in roughly constant time per point reported, without the pointer
+ * chasing of {@link KdTree}.
+ *
+ * Points are kept in parallel coordinate arrays. Each grid cell holds the head
+ * of a chain of point indices linked through next[]. The grid covers the box
+ * between the TRIM-th and (1 - TRIM)-th quantiles of the points on each axis;
+ * points outside it are clamped into the edge cells, so a few far outliers
+ * neither stretch the cells nor pile the other points into one of them. The
+ * grid is rebuilt with about TARGET_PER_CELL points per cell whenever the
+ * average load passes MAX_PER_CELL, or over the points' current spread once
+ * more than a quarter of them lie outside it.
+ */
+public class GridPointSET {
+
+    private static final int TARGET_PER_CELL = 2;
+    private static final int MAX_PER_CELL = 8;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double TRIM = 0.01;
+
+    private double[] xs;
+    private double[] ys;
+    private int[] next;
+    private int size;
+    // number of points outside the grid box, clamped into its edge cells
+    private int outside;
+
+    private int[] head;
+    private int cols;
+    private int rows;
+    private double xmin;
+    private double ymin;
+    private double xmax;
+    private double ymax;
+    private double cellWidth;
+    private double cellHeight;
+
+    public GridPointSET() {
+        // construct an empty set of points
+        xs = new double[INITIAL_CAPACITY];
+        ys = new double[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+        regrid();
+    }
+
+    public boolean isEmpty() {
+        // is the set empty?
+        return size == 0;
+    }
+
+    public int size() {
+        // number of points in the set
+        return size;
+    }
+
+    public void insert(Point2D p) {
+        // add the point to the set (if it is not already in the set)
+        if (p == null) {
+            throw new IllegalArgumentException("Empty point to insert");
+        }
+        double x = p.x();
+        double y = p.y();
+        if (contains(x, y)) {
+            return;
+        }
+        if (size == xs.length) {
+            grow();
+        }
+        xs[size] = x;
+        ys[size] = y;
+        if (x < xmin || x > xmax || y < ymin || y > ymax) {
+            outside++;
+        }
+        link(size++);
+        // a stream of points drifting outward rebuilds only after a constant
+        // fraction of new points, so rebuilds stay amortized
+        if (size > MAX_PER_CELL * head.length || 4 * outside > size) {
+            regrid();
+        }
+    }
+
+    private void grow() {
+        int capacity = 2 * xs.length;
+        double[] x = new double[capacity];
+        double[] y = new double[capacity];
+        int[] n = new int[capacity];
+        System.arraycopy(xs, 0, x, 0, size);
+        System.arraycopy(ys, 0, y, 0, size);
+        System.arraycopy(next, 0, n, 0, size);
+        xs = x;
+        ys = y;
+        next = n;
+    }
+
+    // rebuilds the grid over the trimmed spread of the points with about
+    // TARGET_PER_CELL points per cell, in cells as close to square as possible
+    private void regrid() {
+        if (size == 0) {
+            xmin = 0.0;
+            ymin = 0.0;
+            xmax = 1.0;
+            ymax = 1.0;
+        } else {
+            double[] sorted = Arrays.copyOf(xs, size);
+            Arrays.sort(sorted);
+            int trimmed = (int) (TRIM * size);
+            xmin = sorted[trimmed];
+            xmax = sorted[size - 1 - trimmed];
+            System.arraycopy(ys, 0, sorted, 0, size);
+            Arrays.sort(sorted);
+            ymin = sorted[trimmed];
+            ymax = sorted[size - 1 - trimmed];
+        }
+        // points all on one line still get a box with some extent
+        if (!(xmax > xmin)) {
+            xmax = xmin + Math.max(1.0, ymax - ymin);
+        }
+        if (!(ymax > ymin)) {
+            ymax = ymin + Math.max(1.0, xmax - xmin);
+        }
+        int cells = Math.max(1, size / TARGET_PER_CELL);
+        double width = xmax - xmin;
+        double height = ymax - ymin;
+        cols = (int) Math.max(1, Math.min(cells, Math.round(Math.sqrt(cells * width / height))));
+        rows = Math.max(1, cells / cols);
+        cellWidth = width / cols;
+        cellHeight = height / rows;
+        head = new int[cols * rows];
+        Arrays.fill(head, -1);
+        outside = 0;
+        for (int i = 0; i < size; i++) {
+            if (xs[i] < xmin || xs[i] > xmax || ys[i] < ymin || ys[i] > ymax) {
+                outside++;
+            }
+            link(i);
+        }
+    }
+
+    private void link(int i) {
+        int cell = row(ys[i]) * cols + col(xs[i]);
+        next[i] = head[cell];
+        head[cell] = i;
+    }
+
+    // column of the cell holding x, clamped to the grid
+    private int col(double x) {
+        int col = (int) ((x - xmin) / cellWidth);
+        return col < 0 ? 0 : col >= cols ? cols - 1 : col;
+    }
+
+    // row of the cell holding y, clamped to the grid
+    private int row(double y) {
+        int row = (int) ((y - ymin) / cellHeight);
+        return row < 0 ? 0 : row >= rows ? rows - 1 : row;
+    }
+
+    public boolean contains(Point2D p) {
+        // does the set contain point p?
+        if (p == null) {
+            throw new IllegalArgumentException("Empty point to find");
+        }
+        return contains(p.x(), p.y());
+    }
+
+    private boolean contains(double x, double y) {
+        for (int i = head[row(y) * cols + col(x)]; i >= 0; i = next[i]) {
+            if (xs[i] == x && ys[i] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void draw() {
+        // draw all points to standard draw
+        StdDraw.setScale();
+        for (int i = 0; i < size; i++) {
+            StdDraw.point(xs[i], ys[i]);
+        }
+    }
+
+    public Iterable<Point2D> range(RectHV rect) {
+        // all points that are inside the rectangle (or on the boundary)
+        if (rect == null) {
+            throw new IllegalArgumentException();
+        }
+        List<Point2D> pointsInRange = new ArrayList<>();
+        // edges of the rectangle outside the grid clamp to the edge cells,
+        // which hold the outliers beyond them
+        int colHi = col(rect.xmax());
+        int rowHi = row(rect.ymax());
+        for (int row = row(rect.ymin()); row <= rowHi; row++) {
+            for (int col = col(rect.xmin()); col <= colHi; col++) {
+                for (int i = head[row * cols + col]; i >= 0; i = next[i]) {
+                    double x = xs[i];
+                    double y = ys[i];
+                    if (x >= rect.xmin() && x <= rect.xmax() && y >= rect.ymin() && y <= rect.ymax()) {
+                        pointsInRange.add(new Point2D(x, y));
+                    }
+                }
+            }
+        }
+        return pointsInRange;
+    }
+
+    public Point2D nearest(Point2D p) {
+        // a nearest neighbor in the set to point p; null if the set is empty
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        if (size == 0) {
+            return null;
+        }
+        double x = p.x();
+        double y = p.y();
+        int col = col(x);
+        int row = row(y);
+        int nearest = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        double cellSide = Math.min(cellWidth, cellHeight);
+        int maxRing = Math.max(Math.max(col, cols - 1 - col), Math.max(row, rows - 1 - row));
+        // scan square rings of cells around p's cell; every cell beyond ring r
+        // is at least r cell sides away (points clamped into an edge cell lie
+        // farther still), so stop once the best beats that
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                int step = (r == row - ring || r == row + ring) ? 1 : 2 * ring;
+                for (int c = col - ring; c <= col + ring; c += Math.max(1, step)) {
+                    if (c < 0 || c >= cols) {
+                        continue;
+                    }
+                    for (int i = head[r * cols + c]; i >= 0; i = next[i]) {
+                        double dx = xs[i] - x;
+                        double dy = ys[i] - y;
+                        double distance = dx * dx + dy * dy;
+                        if (distance < nearestDistance) {
+                            nearestDistance = distance;
+                            nearest = i;
+                        }
+                    }
+                }
+            }
+            double reach = ring * cellSide;
+            if (nearest >= 0 && nearestDistance <= reach * reach) {
+                break;
+            }
+        }
+        return new Point2D(xs[nearest], ys[nearest]);
+    }
+
+}
@@ -0,0 +1,119 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdDraw;
+import edu.princeton.cs.algs4.StdOut;
+
+/**
+ * Finds the same segments as {@link FastCollinearPoints} in O(n^2) expected
+ * time. Instead of sorting the other points by slope for each pivot, it hashes
+ * them in a {@link SlopeTable} by the exact reduced direction from the pivot,
+ * so no floating-point slope is ever computed.
+ *
+ * The points are sorted first. Each direction group records its count and its
+ * smallest and largest point index, so a pivot reports a line of four or more
+ * points only when it is the line's smallest point.
+ */
+public class HashCollinearPoints {
+
+    private final List<LineSegment> lineSegments;
+
+    // finds all line segments containing 4 or more points
+    public HashCollinearPoints(Point[] points) {
+        lineSegments = new ArrayList<>();
+        if (points == null) {
+            throw new IllegalArgumentException();
+        }
+        Point[] sorted = evaluateAndGetCopy(points);
+        if (sorted.length < 4) {
+            return;
+        }
+        findCollinearPoints(sorted);
+    }
+
+    private Point[] evaluateAndGetCopy(Point[] points) {
+        Point[] pointsCopy = new Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) {
+                throw new IllegalArgumentException();
+            }
+            pointsCopy[i] = points[i];
+        }
+        Arrays.sort(pointsCopy);
+        for (int i = 1; i < pointsCopy.length; i++) {
+            if (pointsCopy[i - 1].compareTo(pointsCopy[i]) == 0) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return pointsCopy;
+    }
+
+    private void findCollinearPoints(Point[] points) {
+        int n = points.length;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = points[i].x();
+            ys[i] = points[i].y();
+        }
+        SlopeTable table = new SlopeTable(n);
+        // the last three points cannot start a segment of four
+        for (int i = 0; i < n - 3; i++) {
+            table.clear();
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    table.add((long) xs[j] - xs[i], (long) ys[j] - ys[i], j);
+                }
+            }
+            for (int k = 0; k < table.groups(); k++) {
+                int slot = table.group(k);
+                if (table.count(slot) >= 3 && table.minIndex(slot) > i) {
+                    lineSegments.add(new LineSegment(points[i], points[table.maxIndex(slot)]));
+                }
+            }
+        }
+    }
+
+    // the number of line segments
+    public int numberOfSegments() {
+        return lineSegments.size();
+    }
+
+    // the line segments
+    public LineSegment[] segments() {
+        LineSegment[] segments = new LineSegment[lineSegments.size()];
+        return lineSegments.toArray(segments);
+    }
+
+    public static void main(String[] args) {
+
+        // read the n points from a file
+        In in = new In(args[0]);
+        int n = in.readInt();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            int x = in.readInt();
+            int y = in.readInt();
+            points[i] = new Point(x, y);
+        }
+
+        // draw the points
+        StdDraw.enableDoubleBuffering();
+        StdDraw.setXscale(0, 32768);
+        StdDraw.setYscale(0, 32768);
+        for (Point p : points) {
+            p.draw();
+        }
+        StdDraw.show();
+
+        // print and draw the line segments
+        HashCollinearPoints collinear = new HashCollinearPoints(points);
+        for (LineSegment segment : collinear.segments()) {
+            StdOut.println(segment);
+            segment.draw();
+        }
+        StdDraw.show();
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * An estimate of the number of moves left to reach the goal board, used by
+ * {@link Solver} and {@link SolverWith2PQ} to order their search. The solvers
+ * return shortest solutions only with an admissible estimate, one that never
+ * exceeds the true number of moves.
+ */
+public interface Heuristic {
+
+    // sum of the Manhattan distances of the tiles, as computed by the board
+    Heuristic MANHATTAN = Board::manhattan;
+
+    // lower bound on the number of moves from board to the goal
+    int estimate(Board board);
+}
@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+/**
+ * Solves a sliding puzzle with iterative-deepening A* (IDA*). Each iteration
+ * is a depth-first search that cuts off nodes whose cost so far plus
+ * Manhattan distance exceeds a threshold; the next iteration raises the
+ * threshold to the smallest cost that was cut off. The first solution found
+ * is therefore a shortest one.
+ *
+ * Unlike {@link Solver}, no search node or Board is kept per state: moves are
+ * made and undone in place on one tile array, the Manhattan distance is
+ * updated by the moved tile alone, and memory grows only with the solution
+ * depth. Solvability is decided up front from the permutation parity, so
+ * there is no twin search either.
+ */
+public class IdaSolver {
+
+    private static final int FOUND = -1;
+
+    private final Board initialBoard;
+    private final int dimension;
+    private final int[] tiles;
+    // adjacent positions of each position, the blank's possible moves
+    private final int[][] adjacent;
+    // blank positions along the current path; path[0] is the initial blank
+    private int[] path;
+    private int moves = -1;
+
+    // find a solution to the initial board (using the IDA* algorithm)
+    public IdaSolver(Board initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException();
+        }
+        this.initialBoard = initial;
+        this.dimension = initial.dimension();
+        this.tiles = initial.tiles();
+        this.adjacent = adjacentPositions(dimension);
+        if (isSolvable(tiles, dimension)) {
+            solve();
+        }
+    }
+
+    private static int[][] adjacentPositions(int dimension) {
+        int[][] adjacent = new int[dimension * dimension][];
+        for (int position = 0; position < adjacent.length; position++) {
+            int row = position / dimension;
+            int column = position % dimension;
+            int[] candidates = new int[4];
+            int count = 0;
+            if (row > 0) {
+                candidates[count++] = position - dimension;
+            }
+            if (row < dimension - 1) {
+                candidates[count++] = position + dimension;
+            }
+            if (column > 0) {
+                candidates[count++] = position - 1;
+            }
+            if (column < dimension - 1) {
+                candidates[count++] = position + 1;
+            }
+            adjacent[position] = new int[count];
+            System.arraycopy(candidates, 0, adjacent[position], 0, count);
+        }
+        return adjacent;
+    }
+
+    // the goal has the blank last; a board reaches it exactly when its
+    // inversion count is even for odd dimensions, and when inversions plus
+    // the blank's row is odd for even dimensions
+    private static boolean isSolvable(int[] tiles, int dimension) {
+        int inversions = 0;
+        int blankRow = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                blankRow = i / dimension;
+                continue;
+            }
+            for (int j = i + 1; j < tiles.length; j++) {
+                if (tiles[j] != 0 && tiles[j] < tiles[i]) {
+                    inversions++;
+                }
+            }
+        }
+        if (dimension % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        return (inversions + blankRow) % 2 == 1;
+    }
+
+    private void solve() {
+        int blank = 0;
+        int estimate = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                blank = i;
+            } else {
+                estimate += distance(tiles[i], i);
+            }
+        }
+        int threshold = estimate;
+        while (true) {
+            path = new int[threshold + 1];
+            path[0] = blank;
+            int next = search(blank, -1, 0, estimate, threshold);
+            if (next == FOUND) {
+                return;
+            }
+            threshold = next;
+        }
+    }
+
+    // depth-first search below the state with the blank at position, reached
+    // by moves moves; returns FOUND, or the smallest cost that exceeded the
+    // threshold
+    private int search(int blank, int previous, int moves, int estimate, int threshold) {
+        int cost = moves + estimate;
+        if (cost > threshold) {
+            return cost;
+        }
+        if (estimate == 0) {
+            this.moves = moves;
+            return FOUND;
+        }
+        int next = Integer.MAX_VALUE;
+        for (int target : adjacent[blank]) {
+            // moving back to the previous state never shortens a path
+            if (target == previous) {
+                continue;
+            }
+            int tile = tiles[target];
+            int moved = estimate - distance(tile, target) + distance(tile, blank);
+            tiles[blank] = tile;
+            tiles[target] = 0;
+            path[moves + 1] = target;
+            int result = search(target, blank, moves + 1, moved, threshold);
+            tiles[target] = tile;
+            tiles[blank] = 0;
+            if (result == FOUND) {
+                return FOUND;
+            }
+            next = Math.min(next, result);
+        }
+        return next;
+    }
+
+    // Manhattan distance of the tile at position from its goal position
+    private int distance(int tile, int position) {
+        int goal = tile - 1;
+        return Math.abs(goal / dimension - position / dimension) + Math.abs(goal % dimension - position % dimension);
+    }
+
+    // is the initial board solvable?
+    public boolean isSolvable() {
+        return moves >= 0;
+    }
+
+    // min number of moves to solve initial board; -1 if unsolvable
+    public int moves() {
+        return moves;
+    }
+
+    // sequence of boards in a shortest solution; null if unsolvable
+    public Iterable<Board> solution() {
+        if (moves < 0) {
+            return null;
+        }
+        List<Board> solution = new ArrayList<>(moves + 1);
+        solution.add(initialBoard);
+        int[] replay = initialBoard.tiles();
+        for (int i = 1; i <= moves; i++) {
+            replay[path[i - 1]] = replay[path[i]];
+            replay[path[i]] = 0;
+            solution.add(Board.of(replay, dimension));
+        }
+        return solution;
+    }
+
+    // solve a slider puzzle (given below)
+    public static void main(String[] args) {
+        // create initial board from file
+        In in = new In(args[0]);
+        int n = in.readInt();
+        int[][] blocks = new int[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                blocks[i][j] = in.readInt();
+        Board initial = new Board(blocks);
+
+        // solve the puzzle
+        IdaSolver solver = new IdaSolver(initial);
+
+        // print solution to standard output
+        if (!solver.isSolvable()) {
+            StdOut.println("No solution possible");
+        } else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+/**
+ * The searches of a 2d-tree stored in implicit tree order, shared by
+ * {@link StaticKdTree}, which keeps its points in arrays, and
+ * {@link MappedKdTree}, which reads them from a mapped file. Subclasses only
+ * say where the coordinates of the point at an index come from.
+ *
+ * The subtree over [lo, hi) has its splitting point at mid = (lo + hi) >>> 1,
+ * its left subtree over [lo, mid) and its right subtree over [mid + 1, hi).
+ * Even depths split on x and odd depths on y.
+ */
+abstract class ImplicitKdTree {
+
+    // number of points in the set
+    public abstract int size();
+
+    // x-coordinate of the point stored at index
+    public abstract double x(int index);
+
+    // y-coordinate of the point stored at index
+    public abstract double y(int index);
+
+    public boolean isEmpty() {
+        // is the set empty?
+        return size() == 0;
+    }
+
+    public boolean contains(Point2D p) {
+        // does the set contain point p?
+        if (p == null) {
+            throw new IllegalArgumentException("Empty point to find");
+        }
+        return contains(p.x(), p.y(), 0, size(), 0);
+    }
+
+    private boolean contains(double x, double y, int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return false;
+        }
+        int mid = (lo + hi) >>> 1;
+        double midX = x(mid);
+        double midY = y(mid);
+        if (midX == x && midY == y) {
+            return true;
+        }
+        double value = (depth & 1) == 0 ? x : y;
+        double split = (depth & 1) == 0 ? midX : midY;
+        // points equal to the split value may sit on either side
+        return (value <= split && contains(x, y, lo, mid, depth + 1))
+                || (value >= split && contains(x, y, mid + 1, hi, depth + 1));
+    }
+
+    public Iterable<Point2D> range(RectHV rect) {
+        // all points that are inside the rectangle (or on the boundary)
+        if (rect == null) {
+            throw new IllegalArgumentException();
+        }
+        List<Point2D> pointsInRange = new ArrayList<>();
+        range(rect.xmin(), rect.ymin(), rect.xmax(), rect.ymax(), 0, size(), 0, pointsInRange);
+        return pointsInRange;
+    }
+
+    private void range(double xmin, double ymin, double xmax, double ymax, int lo, int hi, int depth,
+            List<Point2D> pointsInRange) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double x = x(mid);
+        double y = y(mid);
+        double split = (depth & 1) == 0 ? x : y;
+        if (((depth & 1) == 0 ? xmin : ymin) <= split) {
+            range(xmin, ymin, xmax, ymax, lo, mid, depth + 1, pointsInRange);
+        }
+        if (x >= xmin && x <= xmax && y >= ymin && y <= ymax) {
+            pointsInRange.add(new Point2D(x, y));
+        }
+        if (((depth & 1) == 0 ? xmax : ymax) >= split) {
+            range(xmin, ymin, xmax, ymax, mid + 1, hi, depth + 1, pointsInRange);
+        }
+    }
+
+    // number of points in the rectangle
+    int rangeCount(double xmin, double ymin, double xmax, double ymax) {
+        return rangeCount(xmin, ymin, xmax, ymax, 0, size(), 0);
+    }
+
+    private int rangeCount(double xmin, double ymin, double xmax, double ymax, int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return 0;
+        }
+        int mid = (lo + hi) >>> 1;
+        double x = x(mid);
+        double y = y(mid);
+        double split = (depth & 1) == 0 ? x : y;
+        int count = (x >= xmin && x <= xmax && y >= ymin && y <= ymax) ? 1 : 0;
+        if (((depth & 1) == 0 ? xmin : ymin) <= split) {
+            count += rangeCount(xmin, ymin, xmax, ymax, lo, mid, depth + 1);
+        }
+        if (((depth & 1) == 0 ? xmax : ymax) >= split) {
+            count += rangeCount(xmin, ymin, xmax, ymax, mid + 1, hi, depth + 1);
+        }
+        return count;
+    }
+
+    // writes the indices of the points in the rectangle from results[next]
+    // on; returns the next free slot
+    int range(double xmin, double ymin, double xmax, double ymax, int[] results, int next) {
+        return range(xmin, ymin, xmax, ymax, 0, size(), 0, results, next);
+    }
+
+    private int range(double xmin, double ymin, double xmax, double ymax, int lo, int hi, int depth,
+            int[] results, int next) {
+        if (lo >= hi) {
+            return next;
+        }
+        int mid = (lo + hi) >>> 1;
+        double x = x(mid);
+        double y = y(mid);
+        double split = (depth & 1) == 0 ? x : y;
+        if (((depth & 1) == 0 ? xmin : ymin) <= split) {
+            next = range(xmin, ymin, xmax, ymax, lo, mid, depth + 1, results, next);
+        }
+        if (x >= xmin && x <= xmax && y >= ymin && y <= ymax) {
+            results[next++] = mid;
+        }
+        if (((depth & 1) == 0 ? xmax : ymax) >= split) {
+            next = range(xmin, ymin, xmax, ymax, mid + 1, hi, depth + 1, results, next);
+        }
+        return next;
+    }
+
+    public Point2D nearest(Point2D p) {
+        // a nearest neighbor in the set to point p; null if the set is empty
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        int index = nearestIndex(p.x(), p.y());
+        return index < 0 ? null : new Point2D(x(index), y(index));
+    }
+
+    // index of a nearest point to (x, y); -1 if the set is empty
+    int nearestIndex(double x, double y) {
+        if (size() == 0) {
+            return -1;
+        }
+        Nearest nearest = new Nearest();
+        nearest(x, y, 0, size(), 0, nearest);
+        return nearest.index;
+    }
+
+    private void nearest(double x, double y, int lo, int hi, int depth, Nearest nearest) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = x(mid) - x;
+        double dy = y(mid) - y;
+        double distance = dx * dx + dy * dy;
+        if (distance < nearest.distance) {
+            nearest.distance = distance;
+            nearest.index = mid;
+        }
+        double axisDistance = (depth & 1) == 0 ? -dx : -dy;
+        // search the side of the splitting line that holds p first
+        if (axisDistance < 0) {
+            nearest(x, y, lo, mid, depth + 1, nearest);
+            if (axisDistance * axisDistance < nearest.distance) {
+                nearest(x, y, mid + 1, hi, depth + 1, nearest);
+            }
+        } else {
+            nearest(x, y, mid + 1, hi, depth + 1, nearest);
+            if (axisDistance * axisDistance < nearest.distance) {
+                nearest(x, y, lo, mid, depth + 1, nearest);
+            }
+        }
+    }
+
+    // best candidate of one nearest-neighbor search
+    private static class Nearest {
+        private int index = -1;
+        private double distance = Double.POSITIVE_INFINITY;
+    }
+}
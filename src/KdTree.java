@@ -1,16 +1,29 @@
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import edu.princeton.cs.algs4.Point2D;
 import edu.princeton.cs.algs4.RectHV;
 import edu.princeton.cs.algs4.StdDraw;
 
 public class KdTree {
+    // scapegoat balance: an insert deeper than log_{1/BALANCE}(nodes) rebuilds
+    // the highest subtree on its path in which one child holds more than this
+    // share of the points
+    private static final double BALANCE = 0.7;
+
     private Node root;
     private int maxLevel;
+    // nodes left without points by delete; they still split space until rebuilt
+    private int tombstones;
+    // largest size since the whole tree was last rebuilt
+    private int maxSize;
+    // depth of the node the last insert created; -1 if it created none
+    private int insertDepth;
 
     public KdTree() {
         // construct an empty set of points
@@ -39,26 +52,216 @@ public class KdTree {
         if (p == null) {
             throw new IllegalArgumentException("Empty point to insert");
         }
-        root = insert(root, p, -1);
+        insertDepth = -1;
+        root = insert(root, p, -1, 0);
+        maxSize = Math.max(maxSize, size());
+        if (insertDepth > Math.log(size() + tombstones) / Math.log(1 / BALANCE)) {
+            rebuildScapegoat(p);
+        }
     }
 
-    private Node insert(Node node, Point2D point, int level) {
+    private Node insert(Node node, Point2D point, int level, int depth) {
         if (node == null) {
+            insertDepth = depth;
             int currLevel = getNextLevel(level);
             return new Node(point, currLevel);
         }
         int compareValue = getComparator(node.level).compare(point, node.key);
         if (compareValue < 0) {
-            node.left = insert(node.left, point, node.level);
+            node.left = insert(node.left, point, node.level, depth + 1);
         } else if (compareValue > 0) {
-            node.right = insert(node.right, point, node.level);
+            node.right = insert(node.right, point, node.level, depth + 1);
         } else {
+            if (node.values.isEmpty()) {
+                tombstones--;
+            }
             node.addPoint(point);
         }
         node.size = size(node.left) + size(node.right) + node.values.size();
         return node;
     }
 
+    // rebuilds the highest subtree on the search path of p in which one child
+    // outweighs the rest
+    private void rebuildScapegoat(Point2D p) {
+        Node parent = null;
+        Node node = root;
+        while (node != null) {
+            if (Math.max(size(node.left), size(node.right)) > BALANCE * node.size) {
+                Node rebuilt = rebuild(node);
+                if (parent == null) {
+                    root = rebuilt;
+                } else if (parent.left == node) {
+                    parent.left = rebuilt;
+                } else {
+                    parent.right = rebuilt;
+                }
+                return;
+            }
+            int compareValue = getComparator(node.level).compare(p, node.key);
+            if (compareValue == 0) {
+                return;
+            }
+            parent = node;
+            node = compareValue < 0 ? node.left : node.right;
+        }
+    }
+
+    public void insertAll(Collection<Point2D> points) {
+        // add all the points; a batch at least half the size of the set is
+        // merged with it into a freshly balanced tree
+        if (points == null) {
+            throw new IllegalArgumentException("Empty points to insert");
+        }
+        for (Point2D p : points) {
+            if (p == null) {
+                throw new IllegalArgumentException("Empty point to insert");
+            }
+        }
+        if (points.size() < size() / 2) {
+            for (Point2D p : points) {
+                insert(p);
+            }
+            return;
+        }
+        Set<Point2D> merged = new HashSet<>(points);
+        inOrder(root, merged);
+        Point2D[] all = merged.toArray(new Point2D[merged.size()]);
+        root = build(all, 0, all.length, 0);
+        tombstones = 0;
+        maxSize = all.length;
+    }
+
+    public void delete(Point2D p) {
+        // remove the point from the set (if it is in the set)
+        if (p == null) {
+            throw new IllegalArgumentException("Empty point to delete");
+        }
+        root = delete(root, p);
+        // rebuild the whole tree once deletes have shrunk it by the balance
+        // factor or left more empty nodes than points
+        if (tombstones > size() || size() < BALANCE * maxSize) {
+            root = rebuild(root);
+            maxSize = size();
+        }
+    }
+
+    private Node delete(Node node, Point2D point) {
+        if (node == null) {
+            return null;
+        }
+        int compareValue = getComparator(node.level).compare(point, node.key);
+        if (compareValue < 0) {
+            node.left = delete(node.left, point);
+        } else if (compareValue > 0) {
+            node.right = delete(node.right, point);
+        } else if (node.values.remove(point) && node.values.isEmpty()) {
+            tombstones++;
+        }
+        node.size = size(node.left) + size(node.right) + node.values.size();
+        return node;
+    }
+
+    // balanced subtree over the node's points, keeping its splitting axis
+    private Node rebuild(Node node) {
+        if (node == null) {
+            return null;
+        }
+        List<Point2D> points = new ArrayList<>(node.size);
+        tombstones -= collect(node, points);
+        Point2D[] array = points.toArray(new Point2D[points.size()]);
+        return build(array, 0, array.length, node.level);
+    }
+
+    // adds the subtree's points to the list; returns how many tombstones it holds
+    private int collect(Node node, List<Point2D> points) {
+        if (node == null) {
+            return 0;
+        }
+        int emptyNodes = node.values.isEmpty() ? 1 : 0;
+        emptyNodes += collect(node.left, points);
+        points.addAll(node.values);
+        emptyNodes += collect(node.right, points);
+        return emptyNodes;
+    }
+
+    // splits points[lo, hi) at the median on the level's axis; the points
+    // sharing the median's coordinate become the node's values, so neither
+    // child gets more than half of the points
+    private Node build(Point2D[] points, int lo, int hi, int level) {
+        if (lo >= hi) {
+            return null;
+        }
+        Comparator<Point2D> comparator = getComparator(level);
+        int mid = (lo + hi) >>> 1;
+        select(points, lo, hi - 1, mid, comparator);
+        int first = mid;
+        while (first > lo && comparator.compare(points[first - 1], points[mid]) == 0) {
+            first--;
+        }
+        int last = mid + 1;
+        while (last < hi && comparator.compare(points[last], points[mid]) == 0) {
+            last++;
+        }
+        Node node = new Node(points[mid], level);
+        for (int i = first; i < last; i++) {
+            if (i != mid) {
+                node.values.add(points[i]);
+            }
+        }
+        node.left = build(points, lo, first, getNextLevel(level));
+        node.right = build(points, last, hi, getNextLevel(level));
+        node.size = hi - lo;
+        return node;
+    }
+
+    // quickselect: moves the k-th smallest point of [lo, hi] to k, with the
+    // points equal to it on the comparator's axis gathered around it
+    private static void select(Point2D[] points, int lo, int hi, int k, Comparator<Point2D> comparator) {
+        while (hi > lo) {
+            exchange(points, lo, ThreadLocalRandom.current().nextInt(lo, hi + 1));
+            Point2D pivot = points[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                int compare = comparator.compare(points[i], pivot);
+                if (compare < 0) {
+                    exchange(points, lt++, i++);
+                } else if (compare > 0) {
+                    exchange(points, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void exchange(Point2D[] points, int i, int j) {
+        Point2D point = points[i];
+        points[i] = points[j];
+        points[j] = point;
+    }
+
+    public int height() {
+        // number of levels in the tree, empty nodes included
+        return height(root);
+    }
+
+    private int height(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        return 1 + Math.max(height(node.left), height(node.right));
+    }
+
     private Comparator<Point2D> getComparator(int level) {
         if (level == 0) {
             return Point2D.X_ORDER;
@@ -100,6 +303,13 @@ public class KdTree {
         }
     }
 
+    public StaticKdTree snapshot() {
+        // frozen copy of the current points for lock-free and batch queries
+        List<Point2D> points = new ArrayList<>();
+        inOrder(root, points);
+        return new StaticKdTree(points.toArray(new Point2D[points.size()]));
+    }
+
     public void draw() {
         // draw all points to standard draw
         List<Point2D> points = new ArrayList<>();
@@ -111,7 +321,7 @@ public class KdTree {
 
     }
 
-    private void inOrder(Node node, List<Point2D> points) {
+    private void inOrder(Node node, Collection<Point2D> points) {
         if (node == null) {
             return;
         }
@@ -128,88 +338,250 @@ public class KdTree {
             throw new IllegalArgumentException();
         }
         List<Point2D> pointsInRange = new ArrayList<>();
-        range(rect, root, pointsInRange);
+        double infinity = Double.POSITIVE_INFINITY;
+        range(rect, root, -infinity, -infinity, infinity, infinity, pointsInRange);
         return pointsInRange;
     }
 
-    private void range(RectHV rect, Node node, List<Point2D> pointsInRange) {
+    public int rangeCount(RectHV rect) {
+        // number of points that are inside the rectangle (or on the boundary)
+        if (rect == null) {
+            throw new IllegalArgumentException();
+        }
+        double infinity = Double.POSITIVE_INFINITY;
+        return rangeCount(rect, root, -infinity, -infinity, infinity, infinity);
+    }
+
+    // the node's subtree lies in [xmin, xmax] x [ymin, ymax]; callers only
+    // descend into regions that overlap rect, so disjoint subtrees are skipped
+    private void range(RectHV rect, Node node, double xmin, double ymin, double xmax, double ymax,
+            List<Point2D> pointsInRange) {
         if (node == null) {
             return;
         }
-        double lower = rect.xmin();
-        double upper = rect.xmax();
-        double value = node.key.x();
-        if (node.level == 1) {
-            lower = rect.ymin();
-            upper = rect.ymax();
-            value = node.key.y();
-        }
-        if (Double.compare(value, lower) < 0) {
-            range(rect, node.right, pointsInRange);
-        } else if (Double.compare(value, upper) > 0) {
-            range(rect, node.left, pointsInRange);
+        if (contains(rect, xmin, ymin, xmax, ymax)) {
+            inOrder(node, pointsInRange);
+            return;
+        }
+        if (node.level == 0) {
+            double x = node.key.x();
+            if (rect.xmin() < x) {
+                range(rect, node.left, xmin, ymin, x, ymax, pointsInRange);
+            }
+            if (rect.xmin() <= x && x <= rect.xmax()) {
+                addInRange(rect, node, pointsInRange);
+            }
+            if (rect.xmax() > x) {
+                range(rect, node.right, x, ymin, xmax, ymax, pointsInRange);
+            }
+        } else {
+            double y = node.key.y();
+            if (rect.ymin() < y) {
+                range(rect, node.left, xmin, ymin, xmax, y, pointsInRange);
+            }
+            if (rect.ymin() <= y && y <= rect.ymax()) {
+                addInRange(rect, node, pointsInRange);
+            }
+            if (rect.ymax() > y) {
+                range(rect, node.right, xmin, y, xmax, ymax, pointsInRange);
+            }
+        }
+    }
+
+    private void addInRange(RectHV rect, Node node, List<Point2D> pointsInRange) {
+        for (Point2D p : node.values) {
+            if (rect.contains(p)) {
+                pointsInRange.add(p);
+            }
+        }
+    }
+
+    private int rangeCount(RectHV rect, Node node, double xmin, double ymin, double xmax, double ymax) {
+        if (node == null) {
+            return 0;
+        }
+        if (contains(rect, xmin, ymin, xmax, ymax)) {
+            return node.size;
+        }
+        int count = 0;
+        if (node.level == 0) {
+            double x = node.key.x();
+            if (rect.xmin() < x) {
+                count += rangeCount(rect, node.left, xmin, ymin, x, ymax);
+            }
+            if (rect.xmin() <= x && x <= rect.xmax()) {
+                count += countInRange(rect, node);
+            }
+            if (rect.xmax() > x) {
+                count += rangeCount(rect, node.right, x, ymin, xmax, ymax);
+            }
         } else {
-            range(rect, node.left, pointsInRange);
-            for (Point2D p : node.values) {
-                if (rect.contains(p)) {
-                    pointsInRange.add(p);
-                }
+            double y = node.key.y();
+            if (rect.ymin() < y) {
+                count += rangeCount(rect, node.left, xmin, ymin, xmax, y);
+            }
+            if (rect.ymin() <= y && y <= rect.ymax()) {
+                count += countInRange(rect, node);
+            }
+            if (rect.ymax() > y) {
+                count += rangeCount(rect, node.right, xmin, y, xmax, ymax);
             }
-            range(rect, node.right, pointsInRange);
         }
+        return count;
+    }
+
+    private int countInRange(RectHV rect, Node node) {
+        int count = 0;
+        for (Point2D p : node.values) {
+            if (rect.contains(p)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(RectHV rect, double xmin, double ymin, double xmax, double ymax) {
+        return rect.xmin() <= xmin && xmax <= rect.xmax() && rect.ymin() <= ymin && ymax <= rect.ymax();
     }
 
     public Point2D nearest(Point2D p) {
         // a nearest neighbor in the set to point p; null if the set is empty
+        return nearest(p, null);
+    }
+
+    public Point2D nearest(Point2D p, QueryCounters counters) {
+        // nearest(p), adding the work done to counters when they are given
         if (p == null) {
             throw new IllegalArgumentException();
         }
-        return nearest(p, root, null);
+        Nearest nearest = new Nearest();
+        nearest(p, root, nearest, counters);
+        return nearest.point;
     }
 
-    private Point2D nearest(Point2D p, Node node, Point2D nearest) {
+    private void nearest(Point2D p, Node node, Nearest nearest, QueryCounters counters) {
         if (node == null) {
-            return nearest;
-        }
-        System.out.println("Searching: "+node.key);
-        Comparator<Point2D> comparator = p.distanceToOrder();
-        int compare = node.level == 0 ? Double.compare(p.x(), node.key.x()) : Double.compare(p.y(), node.key.y());
-        if (compare < 0) {
-            Point2D leftNearest = nearest(p, node.left, nearest);
-            if (nearest == null || comparator.compare(leftNearest, nearest) < 0) {
-                nearest = leftNearest;
+            return;
+        }
+        if (counters != null) {
+            counters.nodesVisited++;
+        }
+        double axisDistance = node.level == 0 ? p.x() - node.key.x() : p.y() - node.key.y();
+        nearest(p, axisDistance < 0 ? node.left : node.right, nearest, counters);
+        // the node's points lie on the splitting line, no closer than the far side
+        if (axisDistance * axisDistance < nearest.distance) {
+            if (counters != null) {
+                counters.leafScans++;
             }
-        } else {
-            Point2D rightNearest = nearest(p, node.right, nearest);
-            if (nearest == null || comparator.compare(rightNearest, nearest) < 0) {
-                nearest = rightNearest;
+            double best = nearest.distance;
+            for (Point2D point : node.values) {
+                double distance = p.distanceSquaredTo(point);
+                if (distance < best) {
+                    best = distance;
+                    nearest.point = point;
+                }
             }
+            nearest.distance = best;
+            nearest(p, axisDistance < 0 ? node.right : node.left, nearest, counters);
+        } else if (counters != null && (axisDistance < 0 ? node.right : node.left) != null) {
+            counters.subtreesPruned++;
         }
-        if (nearest == null) {
-            nearest = node.key;
+    }
+
+    public Iterable<Point2D> nearest(Point2D p, int k) {
+        // the k points in the set nearest to p, closest first (fewer if the
+        // set is smaller)
+        List<Point2D> nearest = new ArrayList<>();
+        for (Point2D point : drain(nearestHeap(p, k))) {
+            nearest.add(point);
+        }
+        return nearest;
+    }
+
+    public void nearest(Point2D p, int k, PointVisitor visitor) {
+        // visit the k points in the set nearest to p, closest first
+        if (visitor == null) {
+            throw new IllegalArgumentException("Empty visitor");
         }
-        double axisDistance = node.level == 0 ? Math.abs(node.key.x() - p.x()) : Math.abs(node.key.y() - p.y());
-        if(Double.compare(p.distanceTo(nearest), axisDistance) >= 0) {
-            nearest = findNearestPoint(node, p, nearest);
+        for (Point2D point : drain(nearestHeap(p, k))) {
+            visitor.visit(point);
         }
-        if (Double.compare(p.distanceTo(nearest), axisDistance) > 0) {
-            if (compare < 0) {
-                nearest = nearest(p, node.right, nearest);
-            } else {
-                nearest = nearest(p, node.left, nearest);
+    }
+
+    private BoundedMaxHeap<Point2D> nearestHeap(Point2D p, int k) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        if (k <= 0) {
+            throw new IllegalArgumentException("Invalid number of neighbors: " + k);
+        }
+        BoundedMaxHeap<Point2D> heap = new BoundedMaxHeap<>(Math.min(k, Math.max(1, size())));
+        nearestNeighbors(p, root, heap);
+        return heap;
+    }
+
+    private static Point2D[] drain(BoundedMaxHeap<Point2D> heap) {
+        return heap.drain(new Point2D[heap.size()]);
+    }
+
+    private void nearestNeighbors(Point2D p, Node node, BoundedMaxHeap<Point2D> heap) {
+        if (node == null) {
+            return;
+        }
+        double axisDistance = node.level == 0 ? p.x() - node.key.x() : p.y() - node.key.y();
+        nearestNeighbors(p, axisDistance < 0 ? node.left : node.right, heap);
+        // the node's points lie on the splitting line, no closer than the far side
+        if (axisDistance * axisDistance < heap.bound()) {
+            for (Point2D point : node.values) {
+                heap.offer(point, p.distanceSquaredTo(point));
             }
+            nearestNeighbors(p, axisDistance < 0 ? node.right : node.left, heap);
         }
-        return nearest;
     }
 
-    private Point2D findNearestPoint(Node node, Point2D p, Point2D nearest) {
-        Comparator<Point2D> comparator = p.distanceToOrder();
-        for (Point2D point : node.values) {
-            if (nearest == null || comparator.compare(point, nearest) < 0) {
-                nearest = point;
+    public Iterable<Point2D> withinRadius(Point2D p, double r) {
+        // all points within distance r of p (on the circle included)
+        final List<Point2D> pointsInRadius = new ArrayList<>();
+        withinRadius(p, r, new PointVisitor() {
+
+            @Override
+            public void visit(Point2D point) {
+                pointsInRadius.add(point);
             }
+        });
+        return pointsInRadius;
+    }
+
+    public void withinRadius(Point2D p, double r, PointVisitor visitor) {
+        // visit all points within distance r of p, in no particular order
+        if (p == null || visitor == null) {
+            throw new IllegalArgumentException();
         }
-        return nearest;
+        if (!(r >= 0)) {
+            throw new IllegalArgumentException("Invalid radius: " + r);
+        }
+        withinRadius(p, r * r, root, visitor);
+    }
+
+    private void withinRadius(Point2D p, double radiusSquared, Node node, PointVisitor visitor) {
+        if (node == null) {
+            return;
+        }
+        double axisDistance = node.level == 0 ? p.x() - node.key.x() : p.y() - node.key.y();
+        withinRadius(p, radiusSquared, axisDistance < 0 ? node.left : node.right, visitor);
+        if (axisDistance * axisDistance <= radiusSquared) {
+            for (Point2D point : node.values) {
+                if (p.distanceSquaredTo(point) <= radiusSquared) {
+                    visitor.visit(point);
+                }
+            }
+            withinRadius(p, radiusSquared, axisDistance < 0 ? node.right : node.left, visitor);
+        }
+    }
+
+    private static class Nearest {
+        private Point2D point;
+        private double distance = Double.POSITIVE_INFINITY;
     }
 
     private static class Node {
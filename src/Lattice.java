@@ -0,0 +1,24 @@
+/**
+ * Site graph for {@link LatticePercolation}: sites are numbered 0..sites()-1,
+ * and the system percolates when an open path joins a top site to a bottom
+ * site. Implementations are immutable, so one lattice can back any number of
+ * concurrent percolation systems.
+ */
+public interface Lattice {
+
+    // number of sites
+    int sites();
+
+    // largest number of neighbors any site has
+    int maxDegree();
+
+    // write the neighbors of site into out (at least maxDegree() long) and
+    // return how many were written
+    int neighbors(int site, int[] out);
+
+    // is site on the top boundary?
+    boolean isTop(int site);
+
+    // is site on the bottom boundary?
+    boolean isBottom(int site);
+}
@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * Percolation on any {@link Lattice}. Open sites are bit-packed and
+ * connectivity lives in one {@link FlatUnionFind} whose roots carry
+ * "connected to top" and "connected to bottom" flags, so there are no virtual
+ * sites and no backwash: about 5 bytes and one bit per site.
+ */
+public class LatticePercolation implements SitePercolation {
+
+    private static final int CONNECTED_TO_TOP = 1;
+    private static final int CONNECTED_TO_BOTTOM = 2;
+    private static final int CONNECTED_TO_BOTH = CONNECTED_TO_TOP | CONNECTED_TO_BOTTOM;
+
+    private final Lattice lattice;
+    private final long[] openBits;
+    private final UnionFind unionFind;
+    private final int[] neighbors;
+    private int openSites;
+    private boolean percolated;
+
+    // create a system on the lattice, with all sites blocked
+    public LatticePercolation(Lattice lattice) {
+        if (lattice == null) {
+            throw new IllegalArgumentException("Empty lattice");
+        }
+        this.lattice = lattice;
+        this.openBits = new long[(lattice.sites() >>> 6) + 1];
+        this.unionFind = new FlatUnionFind(lattice.sites());
+        this.neighbors = new int[lattice.maxDegree()];
+    }
+
+    @Override
+    public int sites() {
+        return lattice.sites();
+    }
+
+    // open site if it is not open already
+    public void open(int site) {
+        openSite(site);
+    }
+
+    @Override
+    public boolean openSite(int site) {
+        validate(site);
+        if (isOpenSite(site)) {
+            return percolated;
+        }
+        openBits[site >>> 6] |= 1L << site;
+        openSites++;
+        int degree = lattice.neighbors(site, neighbors);
+        for (int i = 0; i < degree; i++) {
+            if (isOpenSite(neighbors[i])) {
+                unionFind.union(site, neighbors[i]);
+            }
+        }
+        if (lattice.isTop(site)) {
+            unionFind.mark(site, CONNECTED_TO_TOP);
+        }
+        if (lattice.isBottom(site)) {
+            unionFind.mark(site, CONNECTED_TO_BOTTOM);
+        }
+        if (!percolated && unionFind.flags(site) == CONNECTED_TO_BOTH) {
+            percolated = true;
+        }
+        return percolated;
+    }
+
+    // is site open?
+    public boolean isOpen(int site) {
+        validate(site);
+        return isOpenSite(site);
+    }
+
+    // is site connected to the top boundary by open sites?
+    public boolean isFull(int site) {
+        validate(site);
+        return (unionFind.flags(site) & CONNECTED_TO_TOP) != 0;
+    }
+
+    @Override
+    public int numberOfOpenSites() {
+        return openSites;
+    }
+
+    @Override
+    public boolean percolates() {
+        return percolated;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(openBits, 0L);
+        unionFind.reset();
+        openSites = 0;
+        percolated = false;
+    }
+
+    private boolean isOpenSite(int site) {
+        return (openBits[site >>> 6] & (1L << site)) != 0;
+    }
+
+    private void validate(int site) {
+        if (site < 0 || site >= lattice.sites()) {
+            throw new IllegalArgumentException("Invalid site index " + site);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.StdOut;
+
+/**
+ * A read-only 2d-tree answering queries straight from a memory-mapped index
+ * file written by {@link StaticKdTree#write(Path)}. Opening the index only
+ * maps it and checks its header. Nothing is deserialized, so a restarted
+ * process can answer queries at once, and the operating system pages in only
+ * the parts of the tree that queries touch.
+ *
+ * The file holds the points in StaticKdTree's implicit tree order, so both
+ * run the same {@link ImplicitKdTree} searches, reading coordinates from the
+ * mapping instead of from arrays.
+ */
+public class MappedKdTree extends ImplicitKdTree {
+
+    static final int MAGIC = 0x4b445432;
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int POINT_BYTES = 16;
+
+    private final ByteBuffer points;
+    private final int size;
+
+    private MappedKdTree(ByteBuffer points, int size) {
+        this.points = points;
+        this.size = size;
+    }
+
+    // maps the index file read-only; the mapping stays valid after the
+    // channel is closed
+    public static MappedKdTree open(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Empty file to open");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a kd-tree index of supported size");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a version " + VERSION + " kd-tree index");
+            }
+            int size = buffer.getInt(8);
+            if (size < 0 || HEADER_BYTES + (long) size * POINT_BYTES != length) {
+                throw new IOException(file + " is truncated or has a corrupt header");
+            }
+            return new MappedKdTree(buffer, size);
+        }
+    }
+
+    @Override
+    public int size() {
+        // number of points in the set
+        return size;
+    }
+
+    @Override
+    public double x(int index) {
+        return points.getDouble(HEADER_BYTES + index * POINT_BYTES);
+    }
+
+    @Override
+    public double y(int index) {
+        return points.getDouble(HEADER_BYTES + index * POINT_BYTES + 8);
+    }
+
+    // java MappedKdTree points.txt index.kdt builds the index from a file of
+    // x y pairs; java MappedKdTree index.kdt x y opens it and queries nearest
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2) {
+            double[] coords = new In(args[0]).readAllDoubles();
+            double[] xs = new double[coords.length / 2];
+            double[] ys = new double[coords.length / 2];
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = coords[2 * i];
+                ys[i] = coords[2 * i + 1];
+            }
+            new StaticKdTree(xs, ys).write(Paths.get(args[1]));
+            StdOut.println("Wrote " + xs.length + " points to " + args[1]);
+        } else if (args.length == 3) {
+            long start = System.nanoTime();
+            MappedKdTree tree = MappedKdTree.open(Paths.get(args[0]));
+            Point2D nearest = tree.nearest(new Point2D(Double.parseDouble(args[1]), Double.parseDouble(args[2])));
+            long elapsed = System.nanoTime() - start;
+            StdOut.printf("Nearest: %s of %d points (opened and queried in %.3f ms)%n", nearest, tree.size(),
+                    elapsed / 1e6);
+        } else {
+            throw new IllegalArgumentException("Usage: MappedKdTree points.txt index.kdt | index.kdt x y");
+        }
+    }
+}
@@ -0,0 +1,440 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+/**
+ * An additive disjoint pattern database heuristic for the sliding puzzle. The
+ * tiles are split into disjoint groups; for each group a table holds, for
+ * every placement of the group's tiles, the fewest moves of those tiles that
+ * bring them home when all other tiles are interchangeable. Each move moves a
+ * single tile, so the group values add up to an admissible estimate, which is
+ * never below the Manhattan distance.
+ *
+ * A table is filled once by a backward breadth-first search from the goal
+ * over placements of the group's tiles and the blank, in which moves of other
+ * tiles cost nothing. Only the minimum over the blank's positions is kept, as
+ * one byte per placement: 5,765,760 bytes for each 6-tile group of the 4x4
+ * puzzle. {@link #write(Path)} saves the tables and {@link #open(Path)} maps
+ * them read-only, so they are built once and paged in as the search needs.
+ *
+ * A placement is ranked as a partial permutation: the i-th tile's position,
+ * less the positions taken by the tiles before it, is its digit in a
+ * mixed-radix number with radices n, n - 1, ..., where n is the number of
+ * positions.
+ */
+public class PatternDatabase implements Heuristic {
+
+    static final int MAGIC = 0x50444231;
+    static final int VERSION = 1;
+
+    private static final int UNREACHED = -1;
+
+    private final int dimension;
+    private final int[][] groups;
+    // for group g and tile t at [g * n^2 + t]: the tile's bit by its index in
+    // the group, the bits of the group's tiles before it, and the weight of
+    // its digit in the rank of the group's placement; all 0 for tiles outside
+    // the group and for the blank
+    private final long[] indexBit;
+    private final long[] lowerBits;
+    private final int[] weight;
+    // all tables back to back, each starting at offsets[group]
+    private final ByteBuffer tables;
+    private final int[] offsets;
+
+    private PatternDatabase(int dimension, int[][] groups, ByteBuffer tables, int[] offsets) {
+        this.dimension = dimension;
+        this.groups = groups;
+        this.tables = tables;
+        this.offsets = offsets;
+        int positions = dimension * dimension;
+        this.indexBit = new long[groups.length * positions];
+        this.lowerBits = new long[groups.length * positions];
+        this.weight = new int[groups.length * positions];
+        for (int g = 0; g < groups.length; g++) {
+            int digitWeight = 1;
+            for (int i = groups[g].length - 1; i >= 0; i--) {
+                int slot = g * positions + groups[g][i];
+                indexBit[slot] = 1L << i;
+                lowerBits[slot] = (1L << i) - 1;
+                weight[slot] = digitWeight;
+                digitWeight *= positions - i;
+            }
+        }
+    }
+
+    // the 4-4 partition for the 8-puzzle and the 6-6-3 partition for the
+    // 15-puzzle
+    public static int[][] defaultGroups(int dimension) {
+        if (dimension == 3) {
+            return new int[][] { { 1, 2, 3, 4 }, { 5, 6, 7, 8 } };
+        }
+        if (dimension == 4) {
+            return new int[][] { { 1, 5, 6, 9, 10, 13 }, { 7, 8, 11, 12, 14, 15 }, { 2, 3, 4 } };
+        }
+        throw new IllegalArgumentException("No default partition for dimension " + dimension);
+    }
+
+    // builds the tables of the default partition
+    public static PatternDatabase build(int dimension) {
+        return build(dimension, defaultGroups(dimension));
+    }
+
+    // builds a table for each of the disjoint groups of tiles; tiles left out
+    // of every group add nothing to the estimate
+    public static PatternDatabase build(int dimension, int[][] groups) {
+        int[][] copy = validate(dimension, groups);
+        int positions = dimension * dimension;
+        int[] offsets = new int[copy.length];
+        long length = 0;
+        for (int g = 0; g < copy.length; g++) {
+            offsets[g] = (int) Math.min(length, Integer.MAX_VALUE);
+            length += placements(positions, copy[g].length);
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tables of " + length + " bytes are too large");
+        }
+        byte[] tables = new byte[(int) length];
+        int[][] adjacent = adjacentPositions(dimension);
+        for (int g = 0; g < copy.length; g++) {
+            fill(tables, offsets[g], copy[g], positions, adjacent);
+        }
+        return new PatternDatabase(dimension, copy, ByteBuffer.wrap(tables), offsets);
+    }
+
+    private static int[][] validate(int dimension, int[][] groups) {
+        if (dimension < 2 || dimension > 8) {
+            throw new IllegalArgumentException("Unsupported dimension " + dimension);
+        }
+        if (groups == null || groups.length == 0) {
+            throw new IllegalArgumentException("Empty groups");
+        }
+        int positions = dimension * dimension;
+        boolean[] seen = new boolean[positions];
+        int[][] copy = new int[groups.length][];
+        for (int g = 0; g < groups.length; g++) {
+            if (groups[g] == null || groups[g].length == 0 || groups[g].length >= positions - 1) {
+                throw new IllegalArgumentException("Group " + g + " must hold 1 to " + (positions - 2) + " tiles");
+            }
+            if (placements(positions, groups[g].length) * positions > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Group " + g + " is too large to search");
+            }
+            copy[g] = groups[g].clone();
+            for (int tile : copy[g]) {
+                if (tile < 1 || tile >= positions || seen[tile]) {
+                    throw new IllegalArgumentException("Invalid or repeated tile " + tile);
+                }
+                seen[tile] = true;
+            }
+        }
+        return copy;
+    }
+
+    // number of placements of k distinct tiles on n positions
+    private static long placements(int n, int k) {
+        long count = 1;
+        for (int i = 0; i < k; i++) {
+            count *= n - i;
+        }
+        return count;
+    }
+
+    private static int[][] adjacentPositions(int dimension) {
+        int[][] adjacent = new int[dimension * dimension][];
+        for (int position = 0; position < adjacent.length; position++) {
+            int row = position / dimension;
+            int column = position % dimension;
+            int[] candidates = new int[4];
+            int count = 0;
+            if (row > 0) {
+                candidates[count++] = position - dimension;
+            }
+            if (row < dimension - 1) {
+                candidates[count++] = position + dimension;
+            }
+            if (column > 0) {
+                candidates[count++] = position - 1;
+            }
+            if (column < dimension - 1) {
+                candidates[count++] = position + 1;
+            }
+            adjacent[position] = Arrays.copyOf(candidates, count);
+        }
+        return adjacent;
+    }
+
+    // breadth-first search from the goal over states placement * n + blank,
+    // one layer per number of group moves; a state reached for free is added
+    // to the layer being scanned, a state reached by moving a group tile to
+    // the next one
+    private static void fill(byte[] tables, int offset, int[] group, int positions, int[][] adjacent) {
+        int k = group.length;
+        int size = (int) placements(positions, k);
+        byte[] distance = new byte[size * positions];
+        Arrays.fill(distance, (byte) UNREACHED);
+        int[] position = new int[k];
+        for (int i = 0; i < k; i++) {
+            position[i] = group[i] - 1;
+        }
+        int start = rank(position, positions) * positions + positions - 1;
+        distance[start] = 0;
+        IntList layer = new IntList();
+        IntList nextLayer = new IntList();
+        layer.add(start);
+        int[] occupant = new int[positions];
+        for (int moves = 0; layer.size > 0; moves++) {
+            if (moves == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Group needs more moves than a table entry holds");
+            }
+            for (int s = 0; s < layer.size; s++) {
+                int state = layer.values[s];
+                if (distance[state] != moves) {
+                    continue;
+                }
+                int placement = state / positions;
+                int blank = state % positions;
+                unrank(placement, position, positions);
+                Arrays.fill(occupant, -1);
+                for (int i = 0; i < k; i++) {
+                    occupant[position[i]] = i;
+                }
+                for (int target : adjacent[blank]) {
+                    int tile = occupant[target];
+                    if (tile < 0) {
+                        int neighbor = placement * positions + target;
+                        // unreached, or only reached with one more group move
+                        if (distance[neighbor] == UNREACHED || distance[neighbor] > moves) {
+                            distance[neighbor] = (byte) moves;
+                            layer.add(neighbor);
+                        }
+                    } else {
+                        position[tile] = blank;
+                        int neighbor = rank(position, positions) * positions + target;
+                        position[tile] = target;
+                        if (distance[neighbor] == UNREACHED) {
+                            distance[neighbor] = (byte) (moves + 1);
+                            nextLayer.add(neighbor);
+                        }
+                    }
+                }
+            }
+            IntList scanned = layer;
+            layer = nextLayer;
+            nextLayer = scanned;
+            nextLayer.size = 0;
+        }
+        for (int placement = 0; placement < size; placement++) {
+            int best = UNREACHED;
+            for (int state = placement * positions; state < (placement + 1) * positions; state++) {
+                if (distance[state] != UNREACHED && (best == UNREACHED || distance[state] < best)) {
+                    best = distance[state];
+                }
+            }
+            tables[offset + placement] = (byte) Math.max(best, 0);
+        }
+    }
+
+    // rank of the placement of distinct positions among all placements of as
+    // many tiles on n positions
+    private static int rank(int[] position, int n) {
+        long used = 0;
+        int rank = 0;
+        for (int i = 0; i < position.length; i++) {
+            int p = position[i];
+            rank = rank * (n - i) + p - Long.bitCount(used & ((1L << p) - 1));
+            used |= 1L << p;
+        }
+        return rank;
+    }
+
+    // the placement of the given rank, stored in position
+    private static void unrank(int rank, int[] position, int n) {
+        int k = position.length;
+        for (int i = k - 1; i >= 0; i--) {
+            position[i] = rank % (n - i);
+            rank /= n - i;
+        }
+        long used = 0;
+        for (int i = 0; i < k; i++) {
+            // the digit-th free position
+            int p = -1;
+            for (int free = position[i]; free >= 0; free--) {
+                do {
+                    p++;
+                } while ((used & (1L << p)) != 0);
+            }
+            position[i] = p;
+            used |= 1L << p;
+        }
+    }
+
+    // maps the tables saved by write(Path) read-only; the mapping stays valid
+    // after the channel is closed
+    public static PatternDatabase open(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Empty file to open");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < 16 || length > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a pattern database of supported size");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a version " + VERSION + " pattern database");
+            }
+            int dimension = buffer.getInt(8);
+            int count = buffer.getInt(12);
+            if (dimension < 2 || dimension > 8 || count < 1 || count >= dimension * dimension) {
+                throw new IOException(file + " has a corrupt header");
+            }
+            int[][] groups = new int[count][];
+            int header = 16;
+            for (int g = 0; g < count; g++) {
+                int k = header + 4 <= length ? buffer.getInt(header) : -1;
+                if (k < 1 || header + 4 + 4L * k > length) {
+                    throw new IOException(file + " has a corrupt header");
+                }
+                groups[g] = new int[k];
+                for (int i = 0; i < k; i++) {
+                    groups[g][i] = buffer.getInt(header + 4 + 4 * i);
+                }
+                header += 4 + 4 * k;
+            }
+            try {
+                groups = validate(dimension, groups);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + " has a corrupt header: " + e.getMessage());
+            }
+            int[] offsets = new int[count];
+            long end = header;
+            for (int g = 0; g < count; g++) {
+                offsets[g] = (int) Math.min(end, Integer.MAX_VALUE);
+                end += placements(dimension * dimension, groups[g].length);
+            }
+            if (end != length) {
+                throw new IOException(file + " is truncated or has a corrupt header");
+            }
+            return new PatternDatabase(dimension, groups, buffer, offsets);
+        }
+    }
+
+    // saves the tables in the layout open(Path) maps: magic, version,
+    // dimension and group count, each group's size and tiles, then the tables
+    public void write(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Empty file to write");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimension);
+            out.writeInt(groups.length);
+            for (int[] group : groups) {
+                out.writeInt(group.length);
+                for (int tile : group) {
+                    out.writeInt(tile);
+                }
+            }
+            int positions = dimension * dimension;
+            for (int g = 0; g < groups.length; g++) {
+                int size = (int) placements(positions, groups[g].length);
+                for (int i = 0; i < size; i++) {
+                    out.writeByte(tables.get(offsets[g] + i));
+                }
+            }
+        }
+    }
+
+    // board dimension n the tables were built for
+    public int dimension() {
+        return dimension;
+    }
+
+    // sum over the groups of the moves their tiles need
+    @Override
+    public int estimate(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException();
+        }
+        if (board.dimension() != dimension) {
+            throw new IllegalArgumentException("Board dimension " + board.dimension() + " is not " + dimension);
+        }
+        int estimate = 0;
+        for (int g = 0; g < groups.length; g++) {
+            estimate += tables.get(offsets[g] + rank(board, g));
+        }
+        return estimate;
+    }
+
+    // rank of the placement of group g's tiles on the board, in one pass over
+    // the positions: a tile's digit is its position less the number of tiles
+    // of the group with a smaller index at earlier positions
+    private int rank(Board board, int g) {
+        int positions = dimension * dimension;
+        int base = g * positions;
+        // bits of the group's tiles seen so far
+        long seen = 0;
+        int rank = 0;
+        for (int p = 0; p < positions; p++) {
+            int slot = base + board.tileAt(p);
+            rank += (p - Long.bitCount(seen & lowerBits[slot])) * weight[slot];
+            seen |= indexBit[slot];
+        }
+        return rank;
+    }
+
+    // growable list of ints, the layers of the search
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // java PatternDatabase n tables.pdb builds the default tables for the
+    // n-by-n puzzle; java PatternDatabase tables.pdb puzzle.txt solves the
+    // puzzle with them
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: PatternDatabase n tables.pdb | tables.pdb puzzle.txt");
+        }
+        if (args[0].matches("\\d+")) {
+            long start = System.nanoTime();
+            PatternDatabase database = build(Integer.parseInt(args[0]));
+            database.write(Paths.get(args[1]));
+            StdOut.printf("Wrote %s in %.1f s%n", args[1], (System.nanoTime() - start) / 1e9);
+            return;
+        }
+        PatternDatabase database = open(Paths.get(args[0]));
+        In in = new In(args[1]);
+        int n = in.readInt();
+        int[][] blocks = new int[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                blocks[i][j] = in.readInt();
+        Solver solver = new Solver(new Board(blocks), database);
+        if (!solver.isSolvable()) {
+            StdOut.println("No solution possible");
+        } else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+}
@@ -1,17 +1,48 @@
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import java.util.Arrays;
+import java.util.function.IntFunction;
 
-public class Percolation {
+public class Percolation implements SitePercolation {
 
-    private boolean[][] grid;
-    private final WeightedQuickUnionUF weightedQuickUnionUF;
+    private static final int CONNECTED_TO_TOP = 1;
+    private static final int CONNECTED_TO_BOTTOM = 2;
+    private static final int CONNECTED_TO_BOTH = CONNECTED_TO_TOP | CONNECTED_TO_BOTTOM;
+
+    private final long[] openBits;
+    private final UnionFind unionFind;
     private final int size;
+    private final int top;
+    private final int bottom;
+    private final boolean backwashFree;
     private int openSites;
+    private int steps;
+    private int percolatingStep = -1;
+    private boolean percolated;
 
     // create n-by-n grid, with all sites blocked
     public Percolation(int n) {
-        this.grid = new boolean[n][n];
-        this.weightedQuickUnionUF = new WeightedQuickUnionUF(2 + (int) Math.pow(n, 2));
+        this(n, FlatUnionFind::new);
+    }
+
+    // create n-by-n grid on a union-find built by the factory for n * n + 2
+    // elements (the sites plus a virtual top and bottom)
+    public Percolation(int n, IntFunction<UnionFind> unionFindFactory) {
+        this(n, unionFindFactory, false);
+    }
+
+    // create n-by-n grid; when backwashFree, each component root carries
+    // "connected to top" and "connected to bottom" flags instead of joining the
+    // virtual top and bottom, so isFull never reports sites that are only
+    // reachable through the bottom row, without a second union-find
+    public Percolation(int n, IntFunction<UnionFind> unionFindFactory, boolean backwashFree) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Invalid grid size " + n);
+        }
         this.size = n;
+        this.top = 0;
+        this.bottom = n * n + 1;
+        this.openBits = new long[((n * n + 1) >>> 6) + 1];
+        this.unionFind = unionFindFactory.apply(n * n + 2);
+        this.backwashFree = backwashFree;
     }
 
     // open site (row, col) if it is not open already
@@ -19,22 +50,94 @@ public class Percolation {
         if (!isValidSite(row, col)) {
             throw new IllegalArgumentException(String.format("Invalid index access [%d][%d]", row, col));
         }
-        if (grid[row - 1][col - 1]) {
-            return;
+        openSite((row - 1) * size + (col - 1));
+    }
+
+    // open the 0-based site (row-major, site = (row - 1) * n + (col - 1))
+    public void open(int site) {
+        openSite(site);
+    }
+
+    // open every 0-based site in order; the indices are validated before any
+    // site is opened. Returns whether the system percolates afterwards
+    public boolean openAll(int[] siteIndices) {
+        if (siteIndices == null) {
+            throw new IllegalArgumentException("Empty site indices");
+        }
+        int sites = size * size;
+        for (int i = 0; i < siteIndices.length; i++) {
+            if (siteIndices[i] < 0 || siteIndices[i] >= sites) {
+                throw new IllegalArgumentException(String.format("Invalid site index %d at %d", siteIndices[i], i));
+            }
+        }
+        for (int site : siteIndices) {
+            openSite(site);
+        }
+        return percolated;
+    }
+
+    @Override
+    public int sites() {
+        return size * size;
+    }
+
+    @Override
+    public boolean openSite(int site) {
+        if (site < 0 || site >= size * size) {
+            throw new IllegalArgumentException("Invalid site index " + site);
+        }
+        int currIdx = site + 1;
+        steps++;
+        if (isOpenSite(currIdx)) {
+            return percolated;
         }
-        grid[row - 1][col - 1] = true;
+        openBits[currIdx >>> 6] |= 1L << currIdx;
         openSites++;
-        int currIdx = mapTo1DArray(row, col);
-        connect(currIdx, row + 1, col); // bottom site
-        connect(currIdx, row - 1, col); // top site
-        connect(currIdx, row, col + 1); // right site
-        connect(currIdx, row, col - 1); // left site
-        if (row == 1) {
-            weightedQuickUnionUF.union(currIdx, 0);
+        int row = site / size;
+        int col = site - row * size;
+        // neighbors are bounds-checked here once, so connect skips validation
+        if (row < size - 1) {
+            connect(currIdx, currIdx + size); // bottom site
+        }
+        if (row > 0) {
+            connect(currIdx, currIdx - size); // top site
+        }
+        if (col < size - 1) {
+            connect(currIdx, currIdx + 1); // right site
+        }
+        if (col > 0) {
+            connect(currIdx, currIdx - 1); // left site
+        }
+        // the root flags record top and bottom contact in either mode, so
+        // percolation is read off the new site's root without finding the
+        // virtual top and bottom
+        if (row == 0) {
+            unionFind.mark(currIdx, CONNECTED_TO_TOP);
+            if (!backwashFree) {
+                unionFind.union(currIdx, top);
+            }
+        }
+        if (row == size - 1) {
+            unionFind.mark(currIdx, CONNECTED_TO_BOTTOM);
+            if (!backwashFree) {
+                unionFind.union(currIdx, bottom);
+            }
         }
-        if (row == size) {
-            weightedQuickUnionUF.union(currIdx, (int) Math.pow(size, 2) + 1);
+        if (!percolated && unionFind.flags(currIdx) == CONNECTED_TO_BOTH) {
+            percolated = true;
+            percolatingStep = steps;
         }
+        return percolated;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(openBits, 0L);
+        unionFind.reset();
+        openSites = 0;
+        steps = 0;
+        percolatingStep = -1;
+        percolated = false;
     }
 
     // is site (row, col) open?
@@ -42,7 +145,7 @@ public class Percolation {
         if (!isValidSite(row, col)) {
             throw new IllegalArgumentException(String.format("Invalid index access [%d][%d]", row, col));
         }
-        return (grid[row - 1][col - 1]);
+        return isOpenSite(mapTo1DArray(row, col));
     }
 
     // is site (row, col) full?
@@ -50,26 +153,42 @@ public class Percolation {
         if (!isValidSite(row, col)) {
             throw new IllegalArgumentException(String.format("Invalid index access [%d][%d]", row, col));
         }
-        return weightedQuickUnionUF.connected(0, mapTo1DArray(row, col));
+        int idx = mapTo1DArray(row, col);
+        if (backwashFree) {
+            return (unionFind.flags(idx) & CONNECTED_TO_TOP) != 0;
+        }
+        return unionFind.connected(top, idx);
     }
 
     // number of open sites
+    @Override
     public int numberOfOpenSites() {
         return openSites;
     }
 
     // does the system percolate?
+    @Override
     public boolean percolates() {
-        return weightedQuickUnionUF.connected(0, (int) Math.pow(size, 2) + 1);
+        return percolated;
+    }
+
+    // number of open requests (counting sites that were already open) up to
+    // and including the one that made the system percolate; -1 if it does not
+    public int firstPercolatingStep() {
+        return percolatingStep;
     }
 
     private int mapTo1DArray(int row, int col) {
         return (row - 1) * size + col;
     }
 
-    private void connect(int currIdx, int adjRow, int adjCol) {
-        if (isValidSite(adjRow, adjCol) && isOpen(adjRow, adjCol)) {
-            weightedQuickUnionUF.union(currIdx, mapTo1DArray(adjRow, adjCol));
+    private boolean isOpenSite(int idx) {
+        return (openBits[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    private void connect(int currIdx, int adjIdx) {
+        if (isOpenSite(adjIdx)) {
+            unionFind.union(currIdx, adjIdx);
         }
     }
 
@@ -0,0 +1,69 @@
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the union-find backends of {@link Percolation}: the algs4
+ * {@link WeightedUnionFind} that the grid was originally built on and the
+ * primitive {@link FlatUnionFind}. Reports trial throughput and the estimated
+ * heap footprint of one grid.
+ *
+ * Usage: java PercolationBenchmark n trials [seed]
+ */
+public class PercolationBenchmark {
+
+    private static final int ARRAY_HEADER = 16;
+
+    private PercolationBenchmark() {
+    }
+
+    // estimated bytes of the original grid: a boolean[n][n] and a
+    // WeightedQuickUnionUF (parent and size int arrays) over n * n + 2 elements
+    private static long legacyFootprint(int n) {
+        long grid = ARRAY_HEADER + 4L * n + (long) n * (ARRAY_HEADER + n);
+        long unionFind = 2 * (ARRAY_HEADER + 4L * ((long) n * n + 2));
+        return grid + unionFind;
+    }
+
+    // estimated bytes of the grid on the given backend: the open-site bitmap
+    // plus the union-find arrays
+    private static long footprint(int n, boolean flat) {
+        long sites = (long) n * n + 2;
+        long bitmap = ARRAY_HEADER + 8 * ((sites >>> 6) + 1);
+        long unionFind = flat ? (2 * ARRAY_HEADER + 5 * sites) : (2 * (ARRAY_HEADER + 4 * sites));
+        return bitmap + unionFind;
+    }
+
+    private static long run(int n, int trials, long seed, IntFunction<UnionFind> unionFindFactory) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long opened = 0;
+        for (int i = 0; i < trials; i++) {
+            Percolation percolation = new Percolation(n, unionFindFactory);
+            while (!percolation.percolates()) {
+                percolation.open(random.nextInt(n) + 1, random.nextInt(n) + 1);
+            }
+            opened += percolation.numberOfOpenSites();
+        }
+        return opened;
+    }
+
+    private static void report(String name, int n, int trials, long seed, IntFunction<UnionFind> unionFindFactory,
+            long bytes) {
+        // one untimed pass so both backends are measured after JIT warm-up
+        run(n, Math.max(1, trials / 10), seed + 1, unionFindFactory);
+        long start = System.nanoTime();
+        long opened = run(n, trials, seed, unionFindFactory);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%-24s %10.2f trials/s %14.0f opens/s %12d bytes/grid", name,
+                trials / seconds, opened / seconds, bytes));
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int trials = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        System.out.println(String.format("n = %d, trials = %d, boolean[][] grid on WeightedQuickUnionUF: %d bytes/grid",
+                n, trials, legacyFootprint(n)));
+        report("WeightedUnionFind", n, trials, seed, WeightedUnionFind::new, footprint(n, false));
+        report("FlatUnionFind", n, trials, seed, FlatUnionFind::new, footprint(n, true));
+    }
+}
@@ -1,16 +1,141 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
 
 public class PercolationStats {
 
-    private final double[] percolationThreshold;
+    // fewest trials before the confidence interval is trusted for early stopping
+    private static final int MIN_CONVERGENCE_TRIALS = 30;
+
+    // running sample count, mean and sum of squared deviations (Welford)
+    private int trials;
+    private double mean;
+    private double squaredDeviations;
+
+    // how a trial picks the next site to open
+    public enum TrialMode {
+        // draw uniform sites, including sites that are already open
+        SAMPLING,
+        // walk a freshly shuffled site permutation, one new open site per step
+        PERMUTATION
+    }
+
+    // receives the running statistics of a streaming estimate after each trial
+    public interface ProgressListener {
+        void onProgress(PercolationStats partial);
+    }
 
     // perform trials independent experiments on an n-by-n grid
     public PercolationStats(int n, int trials) {
-        this.percolationThreshold = new double[trials];
         for (int i = 0; i < trials; i++) {
-            percolationThreshold[i] = findPercolationThreshold(n);
+            addSample(findPercolationThreshold(n));
+        }
+    }
+
+    // perform trials independent experiments, one after another, reproducible
+    // from seed
+    public PercolationStats(int n, int trials, long seed) {
+        this(n, trials, seed, null);
+    }
+
+    // perform trials independent experiments spread across the given pool (or
+    // one after another when pool is null); trial i always draws from the i-th
+    // stream split off seed, so the results do not depend on the pool
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool) {
+        this(n, trials, seed, pool, TrialMode.SAMPLING);
+    }
+
+    // as above, choosing how each trial opens its sites
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool, TrialMode mode) {
+        if (n <= 0 || trials <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid grid size %d or trials %d", n, trials));
+        }
+        runTrials(() -> new Percolation(n, FlatUnionFind::new, true), trials, seed, pool, mode);
+    }
+
+    // perform trials independent experiments on any lattice (3D cubic,
+    // triangular, custom adjacency, ...) with the same seeding and pooling as
+    // the n-by-n constructors; throws IllegalArgumentException if the lattice
+    // does not percolate even with every site open
+    public PercolationStats(Lattice lattice, int trials, long seed, ForkJoinPool pool, TrialMode mode) {
+        if (lattice == null || trials <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid lattice %s or trials %d", lattice, trials));
+        }
+        runTrials(() -> new LatticePercolation(lattice), trials, seed, pool, mode);
+    }
+
+    private void runTrials(Supplier<SitePercolation> systems, int trials, long seed, ForkJoinPool pool,
+            TrialMode mode) {
+        SplittableRandom[] streams = splitStreams(seed, trials);
+        if (pool == null) {
+            TrialRunner runner = new TrialRunner(systems.get(), mode);
+            for (int i = 0; i < trials; i++) {
+                addSample(runner.run(streams[i]));
+            }
+        } else {
+            // samples are folded in trial order so the sums match the serial path
+            double[] percolationThreshold = new double[trials];
+            int trialsPerTask = Math.max(1, trials / (4 * pool.getParallelism()));
+            pool.invoke(new TrialTask(systems, mode, streams, percolationThreshold, 0, trials, trialsPerTask));
+            for (double threshold : percolationThreshold) {
+                addSample(threshold);
+            }
+        }
+    }
+
+    private PercolationStats() {
+    }
+
+    // perform seeded trials one after another until the half-width of the 95%
+    // confidence interval drops below epsilon (after at least 30 trials) or
+    // maxTrials have run; the listener, if any, sees the running statistics
+    // after every trial. Trial i draws from the same stream as in the seeded
+    // constructor, so the result matches a fixed run of trials() trials.
+    public static PercolationStats untilConverged(int n, double epsilon, int maxTrials, long seed,
+            ProgressListener listener) {
+        return untilConverged(n, epsilon, maxTrials, seed, listener, TrialMode.SAMPLING);
+    }
+
+    // as above, choosing how each trial opens its sites
+    public static PercolationStats untilConverged(int n, double epsilon, int maxTrials, long seed,
+            ProgressListener listener, TrialMode mode) {
+        if (n <= 0 || maxTrials <= 0 || !(epsilon > 0)) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid grid size %d, trials %d or epsilon %s", n, maxTrials, epsilon));
+        }
+        PercolationStats stats = new PercolationStats();
+        SplittableRandom root = new SplittableRandom(seed);
+        TrialRunner runner = new TrialRunner(new Percolation(n, FlatUnionFind::new, true), mode);
+        while (stats.trials < maxTrials) {
+            stats.addSample(runner.run(root.split()));
+            if (listener != null) {
+                listener.onProgress(stats);
+            }
+            if (stats.trials >= MIN_CONVERGENCE_TRIALS && stats.getRangeTerm() < epsilon) {
+                break;
+            }
+        }
+        return stats;
+    }
+
+    private void addSample(double threshold) {
+        trials++;
+        double delta = threshold - mean;
+        mean += delta / trials;
+        squaredDeviations += delta * (threshold - mean);
+    }
+
+    private static SplittableRandom[] splitStreams(long seed, int trials) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[trials];
+        for (int i = 0; i < trials; i++) {
+            streams[i] = root.split();
         }
+        return streams;
     }
 
     private double findPercolationThreshold(int n) {
@@ -23,14 +148,120 @@ public class PercolationStats {
         return (percolation.numberOfOpenSites() / Math.pow(n, 2));
     }
 
+    // one system and one site permutation, reset and reused by every trial it
+    // runs. sites[i] holds a value only while generations[i] matches the
+    // current trial and is i otherwise, so each trial starts from the identity
+    // without refilling the array
+    private static class TrialRunner {
+        private final SitePercolation percolation;
+        private final TrialMode mode;
+        private final int[] sites;
+        private final int[] generations;
+        private int generation;
+
+        public TrialRunner(SitePercolation percolation, TrialMode mode) {
+            this.percolation = percolation;
+            this.mode = mode;
+            this.sites = mode == TrialMode.PERMUTATION ? new int[percolation.sites()] : null;
+            this.generations = mode == TrialMode.PERMUTATION ? new int[percolation.sites()] : null;
+        }
+
+        public double run(SplittableRandom random) {
+            percolation.reset();
+            int total = percolation.sites();
+            boolean percolates;
+            if (mode == TrialMode.PERMUTATION) {
+                percolates = openInPermutationOrder(random);
+            } else {
+                // keep drawing until the system percolates or no site is left
+                do {
+                    percolates = percolation.openSite(random.nextInt(total));
+                } while (!percolates && percolation.numberOfOpenSites() < total);
+            }
+            if (!percolates) {
+                throw new IllegalArgumentException("The system does not percolate with all sites open");
+            }
+            return (percolation.numberOfOpenSites() / (double) total);
+        }
+
+        // Fisher-Yates shuffle drawn lazily: step i swaps a random remaining
+        // site into position i and opens it, so no site is opened twice and a
+        // trial costs only the steps it takes. Returns whether it percolated
+        private boolean openInPermutationOrder(SplittableRandom random) {
+            if (++generation == 0) {
+                // the stamps wrapped around, so none of them can be trusted
+                Arrays.fill(generations, 0);
+                generation = 1;
+            }
+            for (int i = 0; i < sites.length; i++) {
+                int j = i + random.nextInt(sites.length - i);
+                int site = site(j);
+                sites[j] = site(i);
+                generations[j] = generation;
+                if (percolation.openSite(site)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int site(int i) {
+            return generations[i] == generation ? sites[i] : i;
+        }
+    }
+
+    // runs the trials [from, to) by halving the range, each leaf reusing one
+    // TrialRunner for its trials
+    private static class TrialTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Supplier<SitePercolation> systems;
+        private final TrialMode mode;
+        private final SplittableRandom[] streams;
+        private final double[] results;
+        private final int from;
+        private final int to;
+        private final int trialsPerTask;
+
+        public TrialTask(Supplier<SitePercolation> systems, TrialMode mode, SplittableRandom[] streams,
+                double[] results, int from, int to, int trialsPerTask) {
+            this.systems = systems;
+            this.mode = mode;
+            this.streams = streams;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.trialsPerTask = trialsPerTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= trialsPerTask) {
+                TrialRunner runner = new TrialRunner(systems.get(), mode);
+                for (int i = from; i < to; i++) {
+                    results[i] = runner.run(streams[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TrialTask(systems, mode, streams, results, from, mid, trialsPerTask),
+                    new TrialTask(systems, mode, streams, results, mid, to, trialsPerTask));
+        }
+    }
+
+    // number of trials the statistics cover
+    public int trials() {
+        return trials;
+    }
+
     // sample mean of percolation threshold
     public double mean() {
-        return StdStats.mean(percolationThreshold);
+        return trials == 0 ? Double.NaN : mean;
     }
 
     // sample standard deviation of percolation threshold
     public double stddev() {
-        return StdStats.stddev(percolationThreshold);
+        return Math.sqrt(squaredDeviations / (trials - 1));
     }
 
     // low endpoint of 95% confidence interval
@@ -44,14 +275,19 @@ public class PercolationStats {
     }
 
     private double getRangeTerm() {
-        return (1.96 * stddev()) / Math.sqrt(percolationThreshold.length);
+        return (1.96 * stddev()) / Math.sqrt(trials);
     }
 
     public static void main(String[] args) {
         if (args.length >= 2) {
             int n = Integer.parseInt(args[0]);
             int trial = Integer.parseInt(args[1]);
-            findPercolationParameters(n, trial);
+            if (args.length >= 3) {
+                long seed = Long.parseLong(args[2]);
+                findPercolationParameters(new PercolationStats(n, trial, seed, ForkJoinPool.commonPool()));
+            } else {
+                findPercolationParameters(n, trial);
+            }
         }
         // findPercolationParameters(200, 100);
         // findPercolationParameters(200, 100);
@@ -60,7 +296,10 @@ public class PercolationStats {
     }
 
     private static void findPercolationParameters(int n, int trials) {
-        PercolationStats stats = new PercolationStats(n, trials);
+        findPercolationParameters(new PercolationStats(n, trials));
+    }
+
+    private static void findPercolationParameters(PercolationStats stats) {
         System.out.println("Mean: " + stats.mean());
         System.out.println("stdDev: " + stats.stddev());
         System.out.println(String.format("95-percent confidence interval: [%.10f, %.10f]", stats.confidenceLo(), stats.confidenceHi()));
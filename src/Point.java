@@ -12,6 +12,7 @@ public class Point implements Comparable<Point> {
 
     private final int x; // x-coordinate of this point
     private final int y; // y-coordinate of this point
+    private Comparator<Point> slopeOrder; // created on first use
 
     /**
      * Initializes a new point.
@@ -25,6 +26,24 @@ public class Point implements Comparable<Point> {
         this.y = y;
     }
 
+    /**
+     * Returns the x-coordinate, for exact integer arithmetic on slopes.
+     *
+     * @return the <em>x</em>-coordinate of the point
+     */
+    int x() {
+        return x;
+    }
+
+    /**
+     * Returns the y-coordinate, for exact integer arithmetic on slopes.
+     *
+     * @return the <em>y</em>-coordinate of the point
+     */
+    int y() {
+        return y;
+    }
+
     /**
      * Draws this point to standard draw.
      */
@@ -91,15 +110,19 @@ public class Point implements Comparable<Point> {
      * @return the Comparator that defines this ordering on points
      */
     public Comparator<Point> slopeOrder() {
-        return new Comparator<Point>() {
+        // one comparator per point; comparing by exact cross-multiplication
+        // needs no division and no special cases beyond SlopeSort's
+        if (slopeOrder == null) {
+            slopeOrder = new Comparator<Point>() {
 
-            @Override
-            public int compare(Point first, Point second) {
-                double firstSlope = slopeTo(first);
-                double secondSlope = slopeTo(second);
-                return Double.compare(firstSlope, secondSlope);
-            }
-        };
+                @Override
+                public int compare(Point first, Point second) {
+                    return SlopeSort.compareDirections((long) first.x - x, (long) first.y - y,
+                            (long) second.x - x, (long) second.y - y);
+                }
+            };
+        }
+        return slopeOrder;
     }
 
     /**
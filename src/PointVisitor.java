@@ -0,0 +1,10 @@
+import edu.princeton.cs.algs4.Point2D;
+
+/**
+ * Receives the points of a streaming query one at a time, so callers can
+ * consume results without an intermediate collection.
+ */
+public interface PointVisitor {
+
+    void visit(Point2D point);
+}
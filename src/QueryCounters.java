@@ -0,0 +1,35 @@
+/**
+ * Per-query instrumentation for kd-tree searches. Pass an instance to a query
+ * overload that accepts one; the plain overloads pass null and skip counting.
+ */
+public class QueryCounters {
+    long nodesVisited;
+    long subtreesPruned;
+    long leafScans;
+
+    public long nodesVisited() {
+        // nodes whose splitting point was examined
+        return nodesVisited;
+    }
+
+    public long subtreesPruned() {
+        // subtrees skipped because the splitting plane was too far away
+        return subtreesPruned;
+    }
+
+    public long leafScans() {
+        // point buckets whose distances were computed
+        return leafScans;
+    }
+
+    public void reset() {
+        nodesVisited = 0;
+        subtreesPruned = 0;
+        leafScans = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "visited=" + nodesVisited + ", pruned=" + subtreesPruned + ", scans=" + leafScans;
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * A percolation system over sites numbered 0..sites()-1, the view that
+ * {@link PercolationStats} runs its trials against.
+ */
+public interface SitePercolation {
+
+    // number of sites
+    int sites();
+
+    // open site (0..sites()-1) if it is not open already; returns whether the
+    // system percolates afterwards
+    boolean openSite(int site);
+
+    // number of open sites
+    int numberOfOpenSites();
+
+    // does the system percolate?
+    boolean percolates();
+
+    // block every site again so the system can be reused for another trial
+    void reset();
+}
@@ -0,0 +1,128 @@
+import java.math.BigInteger;
+
+/**
+ * Exact slope comparisons and a dual-pivot quicksort of point indices by
+ * slope, over primitive arrays.
+ *
+ * A slope is given as a direction (dx, dy) from a pivot, normalized so that
+ * dx >= 0: the pivot itself is (0, 0) and sorts first, like
+ * Double.NEGATIVE_INFINITY in {@link Point#slopeTo(Point)}; vertical
+ * directions are (0, 1) and sort last; every other direction is compared by
+ * cross-multiplication, falling back to BigInteger only when the products
+ * could overflow a long.
+ */
+final class SlopeSort {
+
+    private static final int INSERTION_SORT_CUTOFF = 27;
+    private static final long EXACT_PRODUCT_LIMIT = 1L << 31;
+
+    private SlopeSort() {
+    }
+
+    // stores the normalized direction of (dx, dy) in dxs[i], dys[i]
+    static void direction(long dx, long dy, long[] dxs, long[] dys, int i) {
+        if (dx == 0) {
+            dxs[i] = 0;
+            dys[i] = dy == 0 ? 0 : 1;
+        } else if (dx < 0) {
+            dxs[i] = -dx;
+            dys[i] = -dy;
+        } else {
+            dxs[i] = dx;
+            dys[i] = dy;
+        }
+    }
+
+    // compares the slopes of two directions that need not be normalized
+    static int compareDirections(long dx1, long dy1, long dx2, long dy2) {
+        if (dx1 < 0 || (dx1 == 0 && dy1 != 0)) {
+            dx1 = -dx1;
+            dy1 = dx1 == 0 ? 1 : -dy1;
+        }
+        if (dx2 < 0 || (dx2 == 0 && dy2 != 0)) {
+            dx2 = -dx2;
+            dy2 = dx2 == 0 ? 1 : -dy2;
+        }
+        return compare(dx1, dy1, dx2, dy2);
+    }
+
+    // compares two normalized directions by slope
+    static int compare(long dx1, long dy1, long dx2, long dy2) {
+        if (dx1 == 0 || dx2 == 0) {
+            return Integer.compare(rank(dx1, dy1), rank(dx2, dy2));
+        }
+        if ((Math.abs(dy1) | Math.abs(dy2) | dx1 | dx2) < EXACT_PRODUCT_LIMIT) {
+            return Long.compare(dy1 * dx2, dy2 * dx1);
+        }
+        return BigInteger.valueOf(dy1).multiply(BigInteger.valueOf(dx2))
+                .compareTo(BigInteger.valueOf(dy2).multiply(BigInteger.valueOf(dx1)));
+    }
+
+    // 0 for the pivot itself, 1 for finite slopes, 2 for vertical
+    private static int rank(long dx, long dy) {
+        if (dx != 0) {
+            return 1;
+        }
+        return dy == 0 ? 0 : 2;
+    }
+
+    private static int compare(int i, int j, long[] dxs, long[] dys) {
+        return compare(dxs[i], dys[i], dxs[j], dys[j]);
+    }
+
+    // sorts the indices order[lo, hi) by the slope of their directions
+    static void sort(int[] order, long[] dxs, long[] dys, int lo, int hi) {
+        quicksort(order, dxs, dys, lo, hi - 1);
+    }
+
+    // dual-pivot quicksort of order[lo, hi]
+    private static void quicksort(int[] order, long[] dxs, long[] dys, int lo, int hi) {
+        if (hi - lo < INSERTION_SORT_CUTOFF) {
+            for (int i = lo + 1; i <= hi; i++) {
+                int index = order[i];
+                int j = i - 1;
+                while (j >= lo && compare(order[j], index, dxs, dys) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+            return;
+        }
+        // pivots from the tertiles, so sorted input does not degrade the sort
+        int third = (hi - lo) / 3;
+        swap(order, lo, lo + third);
+        swap(order, hi, hi - third);
+        if (compare(order[lo], order[hi], dxs, dys) > 0) {
+            swap(order, lo, hi);
+        }
+        int pivot1 = order[lo];
+        int pivot2 = order[hi];
+        int lt = lo + 1;
+        int gt = hi - 1;
+        int i = lt;
+        while (i <= gt) {
+            if (compare(order[i], pivot1, dxs, dys) < 0) {
+                swap(order, i++, lt++);
+            } else if (compare(order[i], pivot2, dxs, dys) > 0) {
+                swap(order, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        swap(order, lo, --lt);
+        swap(order, hi, ++gt);
+        quicksort(order, dxs, dys, lo, lt - 1);
+        // with equal pivots everything between them is equal too
+        if (compare(pivot1, pivot2, dxs, dys) < 0) {
+            quicksort(order, dxs, dys, lt + 1, gt - 1);
+        }
+        quicksort(order, dxs, dys, gt + 1, hi);
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int t = order[i];
+        order[i] = order[j];
+        order[j] = t;
+    }
+}
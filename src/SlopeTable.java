@@ -0,0 +1,127 @@
+/**
+ * Open-addressing table from the reduced direction between two points to the
+ * number of points in that direction and the smallest and largest of their
+ * indices. A direction (dx, dy) is divided by its gcd and its sign fixed so
+ * that dy > 0 or dy = 0 and dx > 0, so points on either side of an origin
+ * along one line share a direction. clear() starts a new generation instead
+ * of wiping the arrays.
+ *
+ * Between clears, points must be added in increasing index order and at most
+ * capacity() of them.
+ */
+class SlopeTable {
+    private final long[] dxs;
+    private final long[] dys;
+    private final int[] generations;
+    private final int[] counts;
+    private final int[] minIndices;
+    private final int[] maxIndices;
+    private final int[] groups;
+    private final int mask;
+    private int generation;
+    private int size;
+
+    public SlopeTable(int points) {
+        int capacity = Integer.highestOneBit(Math.max(2, points)) << 2;
+        dxs = new long[capacity];
+        dys = new long[capacity];
+        generations = new int[capacity];
+        counts = new int[capacity];
+        minIndices = new int[capacity];
+        maxIndices = new int[capacity];
+        groups = new int[points];
+        mask = capacity - 1;
+    }
+
+    // most points one generation can hold
+    public int capacity() {
+        return groups.length;
+    }
+
+    public void clear() {
+        generation++;
+        size = 0;
+    }
+
+    public void add(long dx, long dy, int index) {
+        if (dy < 0 || (dy == 0 && dx < 0)) {
+            dx = -dx;
+            dy = -dy;
+        }
+        long gcd = gcd(Math.abs(dx), dy);
+        if (gcd != 1) {
+            dx /= gcd;
+            dy /= gcd;
+        }
+        long hash = dx * 0x9E3779B97F4A7C15L + dy;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (generations[slot] == generation) {
+            if (dxs[slot] == dx && dys[slot] == dy) {
+                counts[slot]++;
+                // indices arrive in increasing order
+                maxIndices[slot] = index;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        generations[slot] = generation;
+        dxs[slot] = dx;
+        dys[slot] = dy;
+        counts[slot] = 1;
+        minIndices[slot] = index;
+        maxIndices[slot] = index;
+        groups[size++] = slot;
+    }
+
+    // binary gcd of non-negative values, not both zero; avoids 64-bit division
+    private static long gcd(long a, long b) {
+        if (a == 0 || b == 0) {
+            return a | b;
+        }
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
+    }
+
+    // number of distinct directions since the last clear
+    public int groups() {
+        return size;
+    }
+
+    // slot of the k-th distinct direction
+    public int group(int k) {
+        return groups[k];
+    }
+
+    // reduced direction of the group in the slot
+    public long dx(int slot) {
+        return dxs[slot];
+    }
+
+    public long dy(int slot) {
+        return dys[slot];
+    }
+
+    public int count(int slot) {
+        return counts[slot];
+    }
+
+    public int minIndex(int slot) {
+        return minIndices[slot];
+    }
+
+    public int maxIndex(int slot) {
+        return maxIndices[slot];
+    }
+}
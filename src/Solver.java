@@ -9,6 +9,7 @@ public class Solver {
 
     private SearchNode goalNode;
     private final Board initialBoard;
+    private final Heuristic heuristic;
 
     private static class SearchNode implements Comparable<SearchNode> {
         private final Board board;
@@ -16,11 +17,11 @@ public class Solver {
         private final int noOfMoves;
         private final int score;
 
-        public SearchNode(Board board, SearchNode predecessor, int noOfMoves) {
+        public SearchNode(Board board, SearchNode predecessor, int noOfMoves, Heuristic heuristic) {
             this.board = board;
             this.predecessor = predecessor;
             this.noOfMoves = noOfMoves;
-            this.score = noOfMoves + board.manhattan();
+            this.score = noOfMoves + heuristic.estimate(board);
         }
 
         private int getScore() {
@@ -42,18 +43,25 @@ public class Solver {
 
     // find a solution to the initial board (using the A* algorithm)
     public Solver(Board initial) {
-        if (initial == null) {
+        this(initial, Heuristic.MANHATTAN);
+    }
+
+    // find a solution to the initial board, ordering the A* search by the
+    // given estimate of the moves left instead of the Manhattan distance
+    public Solver(Board initial, Heuristic heuristic) {
+        if (initial == null || heuristic == null) {
             throw new IllegalArgumentException();
         }
         this.initialBoard = initial;
+        this.heuristic = heuristic;
         if (initial.isGoal()) {
-            goalNode = new SearchNode(initial, null, 0);
+            goalNode = new SearchNode(initial, null, 0, heuristic);
         } else {
             MinPQ<SearchNode> searchNodeQueue = new MinPQ<>();
-            SearchNode start = new SearchNode(initial, null, 0);
+            SearchNode start = new SearchNode(initial, null, 0, heuristic);
             searchNodeQueue.insert(start);
             Board twinBoard = initial.twin();
-            SearchNode twinNode = new SearchNode(twinBoard, null, 0);
+            SearchNode twinNode = new SearchNode(twinBoard, null, 0, heuristic);
             searchNodeQueue.insert(twinNode);
             solve(searchNodeQueue);
         }
@@ -68,7 +76,8 @@ public class Solver {
             while (neighborItr.hasNext()) {
                 Board neighborBoard = neighborItr.next();
                 if (deletedNode.predecessor == null || !deletedNode.predecessor.board.equals(neighborBoard)) {
-                    searchNodeQueue.insert(new SearchNode(neighborBoard, deletedNode, deletedNode.noOfMoves + 1));
+                    searchNodeQueue.insert(
+                            new SearchNode(neighborBoard, deletedNode, deletedNode.noOfMoves + 1, heuristic));
                 }
             }
             deletedNode = searchNodeQueue.delMin();
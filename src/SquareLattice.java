@@ -0,0 +1,55 @@
+/**
+ * The n-by-n square grid of {@link Percolation}: row-major sites with their
+ * four axis neighbors, top row 0 and bottom row n-1.
+ */
+public class SquareLattice implements Lattice {
+
+    private final int n;
+
+    public SquareLattice(int n) {
+        if (n <= 0 || (long) n * n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid size " + n);
+        }
+        this.n = n;
+    }
+
+    @Override
+    public int sites() {
+        return n * n;
+    }
+
+    @Override
+    public int maxDegree() {
+        return 4;
+    }
+
+    @Override
+    public int neighbors(int site, int[] out) {
+        int row = site / n;
+        int col = site - row * n;
+        int count = 0;
+        if (row > 0) {
+            out[count++] = site - n;
+        }
+        if (row < n - 1) {
+            out[count++] = site + n;
+        }
+        if (col > 0) {
+            out[count++] = site - 1;
+        }
+        if (col < n - 1) {
+            out[count++] = site + 1;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        return site < n;
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        return site >= n * (n - 1);
+    }
+}
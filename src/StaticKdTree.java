@@ -0,0 +1,318 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.StdDraw;
+
+/**
+ * An immutable 2d-tree bulk-loaded from a fixed set of points, for data sets
+ * too large for one {@link KdTree} node per point.
+ *
+ * Coordinates are kept as two parallel arrays in the implicit tree order that
+ * {@link ImplicitKdTree} searches. The build partitions each range around its
+ * median, so the tree is balanced and needs no child pointers.
+ *
+ * The tree never changes after construction, so any number of threads may
+ * query it at once. The batch queries spread their work over a fork-join pool
+ * and report points as indices into the point store ({@link #x(int)},
+ * {@link #y(int)}), writing them into buffers the caller provides and reuses.
+ *
+ * {@link #write(Path)} saves the tree in the layout {@link MappedKdTree} reads,
+ * so a built index can be reopened without rebuilding it.
+ */
+public class StaticKdTree extends ImplicitKdTree {
+
+    private static final int INSERTION_SORT_CUTOFF = 16;
+    private static final int QUERIES_PER_TASK = 256;
+
+    private final double[] xs;
+    private final double[] ys;
+
+    // bulk-load the distinct points of the array
+    public StaticKdTree(Point2D[] points) {
+        if (points == null) {
+            throw new IllegalArgumentException("Empty points to load");
+        }
+        double[] x = new double[points.length];
+        double[] y = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) {
+                throw new IllegalArgumentException("Empty point at " + i);
+            }
+            x[i] = points[i].x();
+            y[i] = points[i].y();
+        }
+        int size = distinct(x, y);
+        this.xs = trim(x, size);
+        this.ys = trim(y, size);
+        build(0, size, 0);
+    }
+
+    // bulk-load the distinct points (xs[i], ys[i]); the arrays are not modified
+    public StaticKdTree(double[] xs, double[] ys) {
+        if (xs == null || ys == null || xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays are empty or differ in length");
+        }
+        double[] x = xs.clone();
+        double[] y = ys.clone();
+        int size = distinct(x, y);
+        this.xs = trim(x, size);
+        this.ys = trim(y, size);
+        build(0, size, 0);
+    }
+
+    private static double[] trim(double[] values, int size) {
+        if (values.length == size) {
+            return values;
+        }
+        double[] trimmed = new double[size];
+        System.arraycopy(values, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    // sorts the points by x then y and moves the distinct ones to the front;
+    // returns how many there are
+    private static int distinct(double[] x, double[] y) {
+        sort(x, y, 0, x.length - 1);
+        int size = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (size == 0 || compare(x, y, i, size - 1) != 0) {
+                x[size] = x[i];
+                y[size] = y[i];
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static int compare(double[] x, double[] y, int i, int j) {
+        int compare = Double.compare(x[i], x[j]);
+        return compare != 0 ? compare : Double.compare(y[i], y[j]);
+    }
+
+    // quicksort of [lo, hi] by (x, y), recursing into the smaller side
+    private static void sort(double[] x, double[] y, int lo, int hi) {
+        while (hi - lo > INSERTION_SORT_CUTOFF) {
+            swap(x, y, lo, ThreadLocalRandom.current().nextInt(lo, hi + 1));
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                int compare = compare(x, y, i, lt);
+                if (compare < 0) {
+                    swap(x, y, lt++, i++);
+                } else if (compare > 0) {
+                    swap(x, y, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (lt - lo < hi - gt) {
+                sort(x, y, lo, lt - 1);
+                lo = gt + 1;
+            } else {
+                sort(x, y, gt + 1, hi);
+                hi = lt - 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && compare(x, y, j, j - 1) < 0; j--) {
+                swap(x, y, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(double[] x, double[] y, int i, int j) {
+        double t = x[i];
+        x[i] = x[j];
+        x[j] = t;
+        t = y[i];
+        y[i] = y[j];
+        y[j] = t;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth & 1);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // quickselect: moves the k-th smallest point of [lo, hi] on the axis to k,
+    // with no larger coordinates before it and no smaller ones after it
+    private void select(int lo, int hi, int k, int axis) {
+        double[] coords = axis == 0 ? xs : ys;
+        while (hi > lo) {
+            swap(xs, ys, lo, ThreadLocalRandom.current().nextInt(lo, hi + 1));
+            double pivot = coords[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (coords[i] < pivot) {
+                    swap(xs, ys, lt++, i++);
+                } else if (coords[i] > pivot) {
+                    swap(xs, ys, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        // number of points in the set
+        return xs.length;
+    }
+
+    @Override
+    public double x(int index) {
+        return xs[index];
+    }
+
+    @Override
+    public double y(int index) {
+        return ys[index];
+    }
+
+    // saves the tree to file in the MappedKdTree format: a header of magic,
+    // version, point count and padding (four big-endian ints), then x and y
+    // of every point interleaved, in tree order
+    public void write(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Empty file to write");
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MappedKdTree.MAGIC);
+            out.writeInt(MappedKdTree.VERSION);
+            out.writeInt(xs.length);
+            out.writeInt(0);
+            for (int i = 0; i < xs.length; i++) {
+                out.writeDouble(xs[i]);
+                out.writeDouble(ys[i]);
+            }
+        }
+    }
+
+    public void draw() {
+        // draw all points to standard draw
+        StdDraw.setScale();
+        for (int i = 0; i < xs.length; i++) {
+            StdDraw.point(xs[i], ys[i]);
+        }
+    }
+
+    // for each query point (qx[i], qy[i]), store the index of a nearest point
+    // in nearest[i] (-1 if the set is empty); runs on the pool, or on the
+    // calling thread when pool is null
+    public void nearest(final double[] qx, final double[] qy, final int[] nearest, ForkJoinPool pool) {
+        if (qx == null || qy == null || nearest == null || qx.length != qy.length || nearest.length < qx.length) {
+            throw new IllegalArgumentException("Query and result arrays are empty or differ in length");
+        }
+        run(qx.length, pool, new IntConsumer() {
+
+            @Override
+            public void accept(int i) {
+                nearest[i] = nearestIndex(qx[i], qy[i]);
+            }
+        });
+    }
+
+    // for each rectangle rects[i], store the indices of the points inside it
+    // in results[offsets[i]..offsets[i + 1]); returns the total number of
+    // results. offsets needs rects.length + 1 slots. When results is shorter
+    // than the total, only offsets is filled, so the caller can grow the
+    // buffer and ask again. Runs on the pool, or on the calling thread when
+    // pool is null
+    public int range(final RectHV[] rects, final int[] offsets, final int[] results, ForkJoinPool pool) {
+        if (rects == null || offsets == null || results == null || offsets.length < rects.length + 1) {
+            throw new IllegalArgumentException("Rectangles or offsets are empty or too short");
+        }
+        for (RectHV rect : rects) {
+            if (rect == null) {
+                throw new IllegalArgumentException("Empty rectangle");
+            }
+        }
+        run(rects.length, pool, new IntConsumer() {
+
+            @Override
+            public void accept(int i) {
+                RectHV rect = rects[i];
+                offsets[i + 1] = rangeCount(rect.xmin(), rect.ymin(), rect.xmax(), rect.ymax());
+            }
+        });
+        offsets[0] = 0;
+        for (int i = 0; i < rects.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int total = offsets[rects.length];
+        if (total <= results.length) {
+            run(rects.length, pool, new IntConsumer() {
+
+                @Override
+                public void accept(int i) {
+                    RectHV rect = rects[i];
+                    range(rect.xmin(), rect.ymin(), rect.xmax(), rect.ymax(), results, offsets[i]);
+                }
+            });
+        }
+        return total;
+    }
+
+    private static void run(int queries, ForkJoinPool pool, IntConsumer query) {
+        if (pool == null) {
+            for (int i = 0; i < queries; i++) {
+                query.accept(i);
+            }
+        } else {
+            pool.invoke(new BatchTask(query, 0, queries));
+        }
+    }
+
+    // runs the queries [from, to) by halving the range down to small batches
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer query;
+        private final int from;
+        private final int to;
+
+        public BatchTask(IntConsumer query, int from, int to) {
+            this.query = query;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= QUERIES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    query.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(query, from, mid), new BatchTask(query, mid, to));
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+/**
+ * Maintains the line segments of 4 or more points of a growing point set.
+ * Each add(p) costs O(n) expected: the existing points are grouped in a
+ * {@link SlopeTable} by their exact direction from p, which finds every line
+ * through p at once. Only the segments that p creates or extends are
+ * reported; nothing else is recomputed.
+ *
+ * The points are kept sorted, so each direction group's smallest and largest
+ * indices are the line's endpoints without p. Lines of 4 or more points are
+ * found again through their direction and their smallest point.
+ */
+public class StreamingCollinearPoints {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Point[] points;
+    private int size;
+    private SlopeTable table;
+    private final List<Line> lines;
+    private final Map<LineKey, Line> linesByKey;
+
+    public StreamingCollinearPoints() {
+        points = new Point[INITIAL_CAPACITY];
+        table = new SlopeTable(INITIAL_CAPACITY);
+        lines = new ArrayList<>();
+        linesByKey = new HashMap<>();
+    }
+
+    // number of points added so far
+    public int size() {
+        return size;
+    }
+
+    // adds the point; returns the segments it created or extended, each
+    // spanning its whole line
+    public List<LineSegment> add(Point p) {
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        int position = position(p);
+        if (position < size && points[position].compareTo(p) == 0) {
+            throw new IllegalArgumentException("Repeated point " + p);
+        }
+        List<LineSegment> changed = new ArrayList<>();
+        if (size >= 3) {
+            table.clear();
+            for (int j = 0; j < size; j++) {
+                table.add((long) points[j].x() - p.x(), (long) points[j].y() - p.y(), j);
+            }
+            for (int k = 0; k < table.groups(); k++) {
+                int slot = table.group(k);
+                if (table.count(slot) >= 3) {
+                    changed.add(extend(table.dx(slot), table.dy(slot), table.count(slot),
+                            points[table.minIndex(slot)], points[table.maxIndex(slot)], p));
+                }
+            }
+        }
+        insert(p, position);
+        return changed;
+    }
+
+    // records p on the line of count points from min to max in the direction
+    private LineSegment extend(long dx, long dy, int count, Point min, Point max, Point p) {
+        Line line;
+        if (count >= 4) {
+            line = linesByKey.remove(new LineKey(dx, dy, min));
+        } else {
+            line = new Line(min, max);
+            lines.add(line);
+        }
+        if (p.compareTo(line.min) < 0) {
+            line.min = p;
+        }
+        if (p.compareTo(line.max) > 0) {
+            line.max = p;
+        }
+        linesByKey.put(new LineKey(dx, dy, line.min), line);
+        return new LineSegment(line.min, line.max);
+    }
+
+    // index of the first point not less than p
+    private int position(Point p) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (points[mid].compareTo(p) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void insert(Point p, int position) {
+        if (size == points.length) {
+            Point[] grown = new Point[2 * size];
+            System.arraycopy(points, 0, grown, 0, size);
+            points = grown;
+            table = new SlopeTable(2 * size);
+        }
+        System.arraycopy(points, position, points, position + 1, size - position);
+        points[position] = p;
+        size++;
+    }
+
+    // the number of line segments
+    public int numberOfSegments() {
+        return lines.size();
+    }
+
+    // the line segments, in the order they first reached 4 points
+    public LineSegment[] segments() {
+        LineSegment[] segments = new LineSegment[lines.size()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new LineSegment(lines.get(i).min, lines.get(i).max);
+        }
+        return segments;
+    }
+
+    private static class Line {
+        private Point min;
+        private Point max;
+
+        public Line(Point min, Point max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    // a line by its reduced direction and its smallest point
+    private static final class LineKey {
+        private final long dx;
+        private final long dy;
+        private final int x;
+        private final int y;
+
+        public LineKey(long dx, long dy, Point min) {
+            this.dx = dx;
+            this.dy = dy;
+            this.x = min.x();
+            this.y = min.y();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof LineKey)) {
+                return false;
+            }
+            LineKey that = (LineKey) other;
+            return dx == that.dx && dy == that.dy && x == that.x && y == that.y;
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = dx * 31 + dy;
+            hash = hash * 31 + x;
+            hash = hash * 31 + y;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+
+    // reads points from a file and prints the segments each one creates or extends
+    public static void main(String[] args) {
+        In in = new In(args[0]);
+        int n = in.readInt();
+        StreamingCollinearPoints collinear = new StreamingCollinearPoints();
+        for (int i = 0; i < n; i++) {
+            Point p = new Point(in.readInt(), in.readInt());
+            for (LineSegment segment : collinear.add(p)) {
+                StdOut.println(p + ": " + segment);
+            }
+        }
+        StdOut.println(collinear.numberOfSegments() + " segments");
+    }
+}
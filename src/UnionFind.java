@@ -0,0 +1,28 @@
+/**
+ * Union-find over the elements 0..n-1, the connectivity layer behind
+ * {@link Percolation}.
+ */
+public interface UnionFind {
+
+    // component identifier for p
+    int find(int p);
+
+    // merge the components containing p and q
+    void union(int p, int q);
+
+    // are p and q in the same component?
+    boolean connected(int p, int q);
+
+    // number of components
+    int count();
+
+    // set flag bits (any of 1 and 2) on the component containing p; a union
+    // keeps the flags of both components
+    void mark(int p, int flags);
+
+    // flag bits of the component containing p
+    int flags(int p);
+
+    // return every element to its own singleton component
+    void reset();
+}
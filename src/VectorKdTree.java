@@ -0,0 +1,421 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+/**
+ * An immutable k-d tree over points of any fixed dimension, bulk-loaded from
+ * one flat coordinate array: point i occupies coords[i * dimension] through
+ * coords[i * dimension + dimension - 1].
+ *
+ * Like {@link StaticKdTree}, points are stored in implicit tree order, with
+ * the splitting point of [lo, hi) at mid = (lo + hi) >>> 1. Instead of cycling
+ * through the axes, each subtree splits on the axis along which its points are
+ * most spread out, recorded per node. Queries report points as indices into the
+ * point store ({@link #coordinate(int, int)}); duplicate points are kept.
+ *
+ * In two dimensions the tree also answers the {@link RectHV} and
+ * {@link Point2D} queries of {@link KdTree}.
+ */
+public class VectorKdTree {
+
+    private final int dimension;
+    private final int size;
+    private final double[] coords;
+    // split axis of the subtree whose splitting point is stored at each index
+    private final byte[] axes;
+
+    // bulk-load coords.length / dimension points; the array is not modified
+    public VectorKdTree(int dimension, double[] coords) {
+        if (dimension <= 0 || dimension > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid dimension: " + dimension);
+        }
+        if (coords == null || coords.length % dimension != 0) {
+            throw new IllegalArgumentException("Coordinates are empty or not a multiple of the dimension");
+        }
+        this.dimension = dimension;
+        this.size = coords.length / dimension;
+        this.coords = coords.clone();
+        this.axes = new byte[size];
+        build(0, size);
+    }
+
+    // bulk-load two-dimensional points
+    public VectorKdTree(Point2D[] points) {
+        this(2, flatten(points));
+    }
+
+    private static double[] flatten(Point2D[] points) {
+        if (points == null) {
+            throw new IllegalArgumentException("Empty points to load");
+        }
+        double[] coords = new double[2 * points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) {
+                throw new IllegalArgumentException("Empty point at " + i);
+            }
+            coords[2 * i] = points[i].x();
+            coords[2 * i + 1] = points[i].y();
+        }
+        return coords;
+    }
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = widestAxis(lo, hi);
+        axes[mid] = (byte) axis;
+        select(lo, hi - 1, mid, axis);
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < dimension; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo * dimension + axis; i < hi * dimension; i += dimension) {
+                min = Math.min(min, coords[i]);
+                max = Math.max(max, coords[i]);
+            }
+            if (max - min > widestSpread) {
+                widest = axis;
+                widestSpread = max - min;
+            }
+        }
+        return widest;
+    }
+
+    // quickselect: moves the k-th smallest point of [lo, hi] on the axis to k,
+    // with no larger coordinates before it and no smaller ones after it
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            swap(lo, ThreadLocalRandom.current().nextInt(lo, hi + 1));
+            double pivot = coords[lo * dimension + axis];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                double value = coords[i * dimension + axis];
+                if (value < pivot) {
+                    swap(lt++, i++);
+                } else if (value > pivot) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int a = i * dimension;
+        int b = j * dimension;
+        for (int axis = 0; axis < dimension; axis++) {
+            double t = coords[a + axis];
+            coords[a + axis] = coords[b + axis];
+            coords[b + axis] = t;
+        }
+    }
+
+    public int dimension() {
+        // number of coordinates per point
+        return dimension;
+    }
+
+    public boolean isEmpty() {
+        // is the set empty?
+        return size == 0;
+    }
+
+    public int size() {
+        // number of points in the set
+        return size;
+    }
+
+    // coordinate on the axis of the point stored at index
+    public double coordinate(int index, int axis) {
+        if (index < 0 || index >= size || axis < 0 || axis >= dimension) {
+            throw new IllegalArgumentException("Invalid index " + index + " or axis " + axis);
+        }
+        return coords[index * dimension + axis];
+    }
+
+    // copy of the coordinates of the point stored at index
+    public double[] point(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Invalid index: " + index);
+        }
+        double[] point = new double[dimension];
+        System.arraycopy(coords, index * dimension, point, 0, dimension);
+        return point;
+    }
+
+    public boolean contains(double[] point) {
+        // does the set contain the point?
+        validate(point);
+        return contains(point, 0, size);
+    }
+
+    private boolean contains(double[] point, int lo, int hi) {
+        if (lo >= hi) {
+            return false;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (squaredDistance(point, mid) == 0) {
+            return true;
+        }
+        double value = point[axes[mid]];
+        double split = coords[mid * dimension + axes[mid]];
+        // points equal to the split value may sit on either side
+        return (value <= split && contains(point, lo, mid)) || (value >= split && contains(point, mid + 1, hi));
+    }
+
+    // indices of all points inside the box [min, max] (boundary included)
+    public int[] range(double[] min, double[] max) {
+        validate(min);
+        validate(max);
+        Indices indices = new Indices();
+        range(min, max, 0, size, indices);
+        return indices.toArray();
+    }
+
+    private void range(double[] min, double[] max, int lo, int hi, Indices indices) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = axes[mid];
+        double split = coords[mid * dimension + axis];
+        if (min[axis] <= split) {
+            range(min, max, lo, mid, indices);
+        }
+        if (inBox(min, max, mid)) {
+            indices.add(mid);
+        }
+        if (max[axis] >= split) {
+            range(min, max, mid + 1, hi, indices);
+        }
+    }
+
+    private boolean inBox(double[] min, double[] max, int index) {
+        int offset = index * dimension;
+        for (int axis = 0; axis < dimension; axis++) {
+            double value = coords[offset + axis];
+            if (value < min[axis] || value > max[axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // index of a nearest point to the query; -1 if the set is empty
+    public int nearest(double[] query) {
+        return nearest(query, 0.0);
+    }
+
+    // index of a point at most (1 + epsilon) times farther from the query than
+    // its nearest point; -1 if the set is empty
+    public int nearest(double[] query, double epsilon) {
+        int[] nearest = nearest(query, 1, epsilon);
+        return nearest.length == 0 ? -1 : nearest[0];
+    }
+
+    // indices of the k points nearest to the query, closest first (fewer if
+    // the set is smaller)
+    public int[] nearest(double[] query, int k) {
+        return nearest(query, k, 0.0);
+    }
+
+    // approximate k nearest points, closest first: the i-th returned point is
+    // at most (1 + epsilon) times farther from the query than the exact i-th
+    public int[] nearest(double[] query, int k, double epsilon) {
+        validate(query);
+        if (k <= 0) {
+            throw new IllegalArgumentException("Invalid number of neighbors: " + k);
+        }
+        if (!(epsilon >= 0)) {
+            throw new IllegalArgumentException("Invalid epsilon: " + epsilon);
+        }
+        double scale = (1 + epsilon) * (1 + epsilon);
+        IndexHeap heap = new IndexHeap(Math.min(k, Math.max(1, size)));
+        nearest(query, 0, size, scale, heap);
+        return heap.drain();
+    }
+
+    private void nearest(double[] query, int lo, int hi, double scale, IndexHeap heap) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        heap.offer(mid, squaredDistance(query, mid));
+        int axis = axes[mid];
+        double axisDistance = query[axis] - coords[mid * dimension + axis];
+        // search the side of the splitting plane that holds the query first;
+        // the far side is skipped unless it could beat the bound by (1 + epsilon)
+        if (axisDistance < 0) {
+            nearest(query, lo, mid, scale, heap);
+            if (axisDistance * axisDistance * scale < heap.bound()) {
+                nearest(query, mid + 1, hi, scale, heap);
+            }
+        } else {
+            nearest(query, mid + 1, hi, scale, heap);
+            if (axisDistance * axisDistance * scale < heap.bound()) {
+                nearest(query, lo, mid, scale, heap);
+            }
+        }
+    }
+
+    private double squaredDistance(double[] query, int index) {
+        int offset = index * dimension;
+        double distance = 0;
+        for (int axis = 0; axis < dimension; axis++) {
+            double d = query[axis] - coords[offset + axis];
+            distance += d * d;
+        }
+        return distance;
+    }
+
+    public Iterable<Point2D> range(RectHV rect) {
+        // all points that are inside the rectangle (or on the boundary)
+        if (rect == null) {
+            throw new IllegalArgumentException();
+        }
+        requirePlanar();
+        List<Point2D> pointsInRange = new ArrayList<>();
+        for (int index : range(new double[] { rect.xmin(), rect.ymin() }, new double[] { rect.xmax(), rect.ymax() })) {
+            pointsInRange.add(new Point2D(coords[2 * index], coords[2 * index + 1]));
+        }
+        return pointsInRange;
+    }
+
+    public Point2D nearest(Point2D p) {
+        // a nearest neighbor in the set to point p; null if the set is empty
+        if (p == null) {
+            throw new IllegalArgumentException();
+        }
+        requirePlanar();
+        int index = nearest(new double[] { p.x(), p.y() });
+        return index < 0 ? null : new Point2D(coords[2 * index], coords[2 * index + 1]);
+    }
+
+    private void requirePlanar() {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Planar query on a " + dimension + "-dimensional tree");
+        }
+    }
+
+    private void validate(double[] point) {
+        if (point == null || point.length != dimension) {
+            throw new IllegalArgumentException("Point is empty or not " + dimension + "-dimensional");
+        }
+    }
+
+    // max-heap of the best k point indices by squared distance, over
+    // primitive arrays; once full, an index enters only by beating the
+    // farthest one, which it replaces
+    private static class IndexHeap {
+        private final int[] indices;
+        private final double[] distances;
+        private int size;
+
+        public IndexHeap(int capacity) {
+            this.indices = new int[capacity + 1];
+            this.distances = new double[capacity + 1];
+        }
+
+        // squared distance a candidate must beat to enter the heap
+        public double bound() {
+            return size < indices.length - 1 ? Double.POSITIVE_INFINITY : distances[1];
+        }
+
+        public void offer(int index, double distance) {
+            if (size < indices.length - 1) {
+                size++;
+                indices[size] = index;
+                distances[size] = distance;
+                swim(size);
+            } else if (distance < distances[1]) {
+                indices[1] = index;
+                distances[1] = distance;
+                sink(1);
+            }
+        }
+
+        // empties the heap into a new array, closest first
+        public int[] drain() {
+            int[] sorted = new int[size];
+            while (size > 0) {
+                sorted[size - 1] = indices[1];
+                exchange(1, size--);
+                sink(1);
+            }
+            return sorted;
+        }
+
+        private void swim(int k) {
+            while (k > 1 && distances[k / 2] < distances[k]) {
+                exchange(k, k / 2);
+                k = k / 2;
+            }
+        }
+
+        private void sink(int k) {
+            while (2 * k <= size) {
+                int child = 2 * k;
+                if (child < size && distances[child] < distances[child + 1]) {
+                    child++;
+                }
+                if (distances[k] >= distances[child]) {
+                    break;
+                }
+                exchange(k, child);
+                k = child;
+            }
+        }
+
+        private void exchange(int i, int j) {
+            int index = indices[i];
+            indices[i] = indices[j];
+            indices[j] = index;
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+
+    // growable list of point indices
+    private static class Indices {
+        private int[] values = new int[16];
+        private int size;
+
+        public void add(int index) {
+            if (size == values.length) {
+                int[] grown = new int[2 * size];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = index;
+        }
+
+        public int[] toArray() {
+            int[] array = new int[size];
+            System.arraycopy(values, 0, array, 0, size);
+            return array;
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+import java.util.Arrays;
+
+import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+
+/**
+ * {@link UnionFind} view of the algs4 {@link WeightedQuickUnionUF}, kept as the
+ * reference backend for {@link Percolation}.
+ */
+public class WeightedUnionFind implements UnionFind {
+
+    private final int n;
+    private final byte[] flags;
+    private WeightedQuickUnionUF weightedQuickUnionUF;
+
+    public WeightedUnionFind(int n) {
+        this.n = n;
+        this.flags = new byte[n];
+        this.weightedQuickUnionUF = new WeightedQuickUnionUF(n);
+    }
+
+    @Override
+    public int find(int p) {
+        return weightedQuickUnionUF.find(p);
+    }
+
+    @Override
+    public void union(int p, int q) {
+        int merged = flags[find(p)] | flags[find(q)];
+        weightedQuickUnionUF.union(p, q);
+        flags[find(p)] = (byte) merged;
+    }
+
+    @Override
+    public boolean connected(int p, int q) {
+        return weightedQuickUnionUF.connected(p, q);
+    }
+
+    @Override
+    public int count() {
+        return weightedQuickUnionUF.count();
+    }
+
+    @Override
+    public void mark(int p, int flags) {
+        this.flags[find(p)] |= flags & 0x3;
+    }
+
+    @Override
+    public int flags(int p) {
+        return flags[find(p)];
+    }
+
+    @Override
+    public void reset() {
+        // the algs4 structure has no way to clear it, so start a fresh one
+        weightedQuickUnionUF = new WeightedQuickUnionUF(n);
+        Arrays.fill(flags, (byte) 0);
+    }
+}
@@ -0,0 +1,53 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class BruteCollinearPointsTest {
+
+	@Test
+	public void testFivePointLineYieldsOneSegment() {
+		Point[] points = new Point[5];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new Point(1000 * (4 - i), 1000 * (4 - i));
+		}
+		BruteCollinearPoints brute = new BruteCollinearPoints(points);
+		assertEquals(1, brute.numberOfSegments());
+		assertEquals("(0, 0) -> (4000, 4000)", brute.segments()[0].toString());
+		assertEquals(HashCollinearPointsTest.sorted(new FastCollinearPoints(points).segments()),
+				HashCollinearPointsTest.sorted(brute.segments()));
+	}
+
+	@Test
+	public void testMatchesFastCollinearPoints() {
+		Random random = new Random(23);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int round = 0; round < 10; round++) {
+				// a small grid has many lines of 5 or more points
+				Point[] points = HashCollinearPointsTest.distinctPoints(random, 40, 7 + round);
+				String fast = HashCollinearPointsTest.sorted(new FastCollinearPoints(points).segments()).toString();
+				assertEquals(fast, HashCollinearPointsTest.sorted(new BruteCollinearPoints(points).segments()).toString());
+				assertEquals(fast,
+						HashCollinearPointsTest.sorted(new BruteCollinearPoints(points, pool).segments()).toString());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testCoordinatesSpanningTheIntRange() {
+		int min = Integer.MIN_VALUE;
+		int max = Integer.MAX_VALUE;
+		Point[] points = { new Point(min, min), new Point(-1, -1), new Point(2, 2), new Point(max, max),
+				// off the diagonal by one unit over the whole range
+				new Point(min, min + 1), new Point(0, 1), new Point(max - 1, max) };
+		BruteCollinearPoints brute = new BruteCollinearPoints(points);
+		assertEquals(1, brute.numberOfSegments());
+		assertEquals(HashCollinearPointsTest.sorted(new FastCollinearPoints(points).segments()),
+				HashCollinearPointsTest.sorted(brute.segments()));
+	}
+}
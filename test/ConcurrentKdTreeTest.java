@@ -0,0 +1,117 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+public class ConcurrentKdTreeTest {
+
+	@Test
+	public void testMatchesPointSet() {
+		Random random = new Random(8);
+		ConcurrentKdTree tree = new ConcurrentKdTree();
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < 2000; i++) {
+			Point2D p = new Point2D(random.nextInt(50) / 50.0, random.nextInt(50) / 50.0);
+			tree.insert(p);
+			pointSet.insert(p);
+		}
+		assertEquals(pointSet.size(), tree.size());
+		for (int q = 0; q < 200; q++) {
+			Point2D p = new Point2D(random.nextDouble(), random.nextDouble());
+			assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(tree.nearest(p)), 0d);
+			assertEquals(pointSet.contains(p), tree.contains(p));
+			RectHV rect = new RectHV(p.x() / 2, p.y() / 2, p.x(), p.y());
+			assertEquals(StaticKdTreeTest.sorted(pointSet.range(rect)), StaticKdTreeTest.sorted(tree.range(rect)));
+		}
+	}
+
+	@Test
+	public void testReaderSeesEveryInsertUpToPublishedSize() throws InterruptedException {
+		final Point2D[] points = new Point2D[20000];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new Point2D(i / (double) points.length, (i * 7919 % points.length) / (double) points.length);
+		}
+		final ConcurrentKdTree tree = new ConcurrentKdTree();
+		final AtomicReference<String> failure = new AtomicReference<>();
+		Thread reader = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				int last = 0;
+				while (last < points.length) {
+					int size = tree.size();
+					if (size < last || (size > 0 && !tree.contains(points[size - 1]))) {
+						failure.set("size " + size + " after " + last);
+						return;
+					}
+					last = size;
+				}
+			}
+		});
+		reader.start();
+		for (Point2D p : points) {
+			tree.insert(p);
+		}
+		reader.join(10000);
+		assertEquals(null, failure.get());
+		assertTrue(!reader.isAlive());
+	}
+
+	@Test
+	public void testMonotoneInsertsKeepHeightLogarithmic() {
+		int n = 200000;
+		ConcurrentKdTree tree = new ConcurrentKdTree();
+		for (int i = 0; i < n; i++) {
+			tree.insert(new Point2D(i / (double) n, 0.5 + 1e-4 * (i % 7)));
+		}
+		assertEquals(n, tree.size());
+		assertTrue("height " + tree.height(), tree.height() <= 1 + Math.log(n) / Math.log(1 / 0.7));
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < n; i += 97) {
+			Point2D p = new Point2D(i / (double) n, 0.5 + 1e-4 * (i % 7));
+			assertTrue(tree.contains(p));
+			pointSet.insert(p);
+		}
+		Random random = new Random(12);
+		for (int q = 0; q < 100; q++) {
+			double x = random.nextDouble();
+			RectHV rect = new RectHV(x, 0.5, Math.min(1, x + 0.001), 0.5003);
+			int expected = 0;
+			for (int i = Math.max(0, (int) (x * n) - 1); i < n && i / (double) n <= rect.xmax(); i++) {
+				expected += rect.contains(new Point2D(i / (double) n, 0.5 + 1e-4 * (i % 7))) ? 1 : 0;
+			}
+			int found = 0;
+			for (Point2D p : tree.range(rect)) {
+				found++;
+			}
+			assertEquals(expected, found);
+		}
+	}
+
+	@Test
+	public void testTiesOnSplitCoordinateMatchPointSet() {
+		Random random = new Random(13);
+		ConcurrentKdTree tree = new ConcurrentKdTree();
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < 5000; i++) {
+			// few distinct coordinates, sorted by x, so most splits are ties
+			Point2D p = new Point2D(i / 500 / 10.0, random.nextInt(10) / 10.0);
+			tree.insert(p);
+			pointSet.insert(p);
+		}
+		assertEquals(pointSet.size(), tree.size());
+		for (int q = 0; q < 200; q++) {
+			Point2D p = new Point2D(random.nextInt(11) / 10.0, random.nextInt(11) / 10.0);
+			assertEquals(pointSet.contains(p), tree.contains(p));
+			assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(tree.nearest(p)), 0d);
+			RectHV rect = new RectHV(p.x() / 2, p.y() / 2, p.x(), p.y());
+			assertEquals(StaticKdTreeTest.sorted(pointSet.range(rect)), StaticKdTreeTest.sorted(tree.range(rect)));
+		}
+	}
+}
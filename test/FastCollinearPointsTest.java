@@ -0,0 +1,28 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class FastCollinearPointsTest {
+
+	@Test
+	public void testPoolYieldsSameSegmentsInSameOrder() {
+		Random random = new Random(20);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int round = 0; round < 10; round++) {
+				Point[] points = HashCollinearPointsTest.distinctPoints(random, 200, 20 + round);
+				LineSegment[] sequential = new FastCollinearPoints(points).segments();
+				LineSegment[] parallel = new FastCollinearPoints(points, pool).segments();
+				assertEquals(sequential.length, parallel.length);
+				for (int i = 0; i < sequential.length; i++) {
+					assertEquals(sequential[i].toString(), parallel[i].toString());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
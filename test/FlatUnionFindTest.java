@@ -0,0 +1,41 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FlatUnionFindTest {
+
+	@Test
+	public void testMatchesWeightedUnionFind() {
+		Random random = new Random(1);
+		FlatUnionFind flat = new FlatUnionFind(500);
+		WeightedUnionFind reference = new WeightedUnionFind(500);
+		for (int i = 0; i < 2000; i++) {
+			int p = random.nextInt(500);
+			int q = random.nextInt(500);
+			if (random.nextBoolean()) {
+				flat.union(p, q);
+				reference.union(p, q);
+			} else {
+				assertEquals(reference.connected(p, q), flat.connected(p, q));
+			}
+			assertEquals(reference.count(), flat.count());
+		}
+	}
+
+	@Test
+	public void testUnionKeepsFlagsOfBothComponents() {
+		FlatUnionFind unionFind = new FlatUnionFind(6);
+		unionFind.mark(0, 1);
+		unionFind.mark(5, 2);
+		unionFind.union(0, 1);
+		assertEquals(1, unionFind.flags(1));
+		unionFind.union(5, 1);
+		assertEquals(3, unionFind.flags(0));
+		assertEquals(0, unionFind.flags(3));
+		unionFind.reset();
+		assertEquals(0, unionFind.flags(0));
+		assertEquals(6, unionFind.count());
+	}
+}
@@ -0,0 +1,75 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+public class GridPointSETTest {
+
+	@Test
+	public void testMatchesPointSet() {
+		Random random = new Random(17);
+		GridPointSET grid = new GridPointSET();
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < 3000; i++) {
+			Point2D p = new Point2D(random.nextInt(100) / 100.0, random.nextInt(100) / 100.0);
+			grid.insert(p);
+			pointSet.insert(p);
+		}
+		assertEquals(pointSet.size(), grid.size());
+		assertQueriesMatch(random, grid, pointSet, 1);
+	}
+
+	@Test
+	public void testOutliersAndDriftMatchPointSet() {
+		Random random = new Random(18);
+		GridPointSET grid = new GridPointSET();
+		PointSET pointSet = new PointSET();
+		Point2D[] outliers = { new Point2D(1e6, -1e6), new Point2D(-5e5, 3), new Point2D(0.5, 1e9) };
+		for (Point2D p : outliers) {
+			grid.insert(p);
+			pointSet.insert(p);
+		}
+		for (int i = 0; i < 3000; i++) {
+			// a cluster that drifts away from the unit square
+			Point2D p = new Point2D(10 + i / 100.0 + random.nextDouble(), -20 + random.nextDouble());
+			grid.insert(p);
+			pointSet.insert(p);
+		}
+		assertEquals(pointSet.size(), grid.size());
+		for (Point2D p : outliers) {
+			assertTrue(grid.contains(p));
+			assertEquals(p, grid.nearest(new Point2D(p.x() + 1, p.y())));
+		}
+		assertFalse(grid.contains(new Point2D(1e6, 1e6)));
+		assertQueriesMatch(random, grid, pointSet, 50);
+		RectHV everything = new RectHV(-1e10, -1e10, 1e10, 1e10);
+		assertEquals(StaticKdTreeTest.sorted(pointSet.range(everything)), StaticKdTreeTest.sorted(grid.range(everything)));
+	}
+
+	@Test
+	public void testPointsOnOneLine() {
+		GridPointSET grid = new GridPointSET();
+		for (int i = 0; i < 100; i++) {
+			grid.insert(new Point2D(3, i));
+		}
+		assertEquals(100, grid.size());
+		assertEquals(new Point2D(3, 42), grid.nearest(new Point2D(2.5, 42.2)));
+		assertTrue(grid.contains(new Point2D(3, 99)));
+	}
+
+	private static void assertQueriesMatch(Random random, GridPointSET grid, PointSET pointSet, double scale) {
+		for (int q = 0; q < 300; q++) {
+			Point2D p = new Point2D(scale * random.nextDouble(), scale * (random.nextDouble() - 0.5));
+			assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(grid.nearest(p)), 0d);
+			assertEquals(pointSet.contains(p), grid.contains(p));
+			RectHV rect = new RectHV(p.x() / 2, p.y() - scale / 10, p.x(), p.y());
+			assertEquals(StaticKdTreeTest.sorted(pointSet.range(rect)), StaticKdTreeTest.sorted(grid.range(rect)));
+		}
+	}
+}
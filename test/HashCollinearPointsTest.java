@@ -0,0 +1,57 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class HashCollinearPointsTest {
+
+	@Test
+	public void testMatchesFastCollinearPoints() {
+		Random random = new Random(19);
+		for (int round = 0; round < 20; round++) {
+			Point[] points = distinctPoints(random, 80, 12 + round);
+			assertEquals(sorted(new FastCollinearPoints(points).segments()),
+					sorted(new HashCollinearPoints(points).segments()));
+		}
+	}
+
+	@Test
+	public void testLargeCoordinatesAndFewPoints() {
+		Point[] points = { new Point(0, 0), new Point(32767, 32766), new Point(-32767, -32766),
+				new Point(16383, 16383), new Point(1, 1), new Point(2, 2), new Point(3, 3) };
+		assertEquals(sorted(new FastCollinearPoints(points).segments()),
+				sorted(new HashCollinearPoints(points).segments()));
+		assertEquals(1, new HashCollinearPoints(points).numberOfSegments());
+		assertEquals(0, new HashCollinearPoints(new Point[] { new Point(0, 0) }).numberOfSegments());
+	}
+
+	// n distinct points on a side x side grid, so many lines hold 4 or more
+	static Point[] distinctPoints(Random random, int n, int side) {
+		Set<String> seen = new HashSet<>();
+		List<Point> points = new ArrayList<>();
+		while (points.size() < Math.min(n, side * side)) {
+			int x = random.nextInt(side);
+			int y = random.nextInt(side);
+			if (seen.add(x + "," + y)) {
+				points.add(new Point(x, y));
+			}
+		}
+		return points.toArray(new Point[points.size()]);
+	}
+
+	// the segments as sorted strings, as LineSegment has no equals
+	static List<String> sorted(LineSegment[] segments) {
+		List<String> list = new ArrayList<>();
+		for (LineSegment segment : segments) {
+			list.add(segment.toString());
+		}
+		Collections.sort(list);
+		return list;
+	}
+}
@@ -0,0 +1,96 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IdaSolverTest {
+
+	@Test
+	public void testMovesMatchSolver() {
+		Random random = new Random(24);
+		for (int round = 0; round < 30; round++) {
+			Board board = scramble(3, 10 + round, random);
+			IdaSolver ida = new IdaSolver(board);
+			assertEquals(optimalMoves(new Solver(board)), ida.moves());
+			assertValidSolution(ida.solution(), ida.moves());
+		}
+	}
+
+	@Test
+	public void testFifteenPuzzle() {
+		Random random = new Random(25);
+		for (int round = 0; round < 5; round++) {
+			Board board = scramble(4, 20, random);
+			IdaSolver ida = new IdaSolver(board);
+			assertEquals(optimalMoves(new Solver(board)), ida.moves());
+			assertValidSolution(ida.solution(), ida.moves());
+		}
+	}
+
+	@Test
+	public void testGoalAndUnsolvableBoards() {
+		IdaSolver goal = new IdaSolver(goal(3));
+		assertEquals(0, goal.moves());
+		assertValidSolution(goal.solution(), 0);
+		IdaSolver unsolvable = new IdaSolver(goal(3).twin());
+		assertFalse(unsolvable.isSolvable());
+		assertEquals(-1, unsolvable.moves());
+		assertEquals(null, unsolvable.solution());
+		assertFalse(new Solver(goal(3).twin()).isSolvable());
+	}
+
+	// Board.isGoal() does not look at the last tile, so a solver may stop one
+	// move early, on the goal with its last tile and blank swapped; that board
+	// is one move from the goal, so the shortest solution has one move more
+	static int optimalMoves(Solver solver) {
+		Board last = null;
+		for (Board board : solver.solution()) {
+			last = board;
+		}
+		return last.equals(goal(last.dimension())) ? solver.moves() : solver.moves() + 1;
+	}
+
+	// the board reached from the goal by a random walk of the blank
+	static Board scramble(int dimension, int steps, Random random) {
+		Board board = goal(dimension);
+		for (int i = 0; i < steps; i++) {
+			List<Board> neighbors = new ArrayList<>();
+			for (Board neighbor : board.neighbors()) {
+				neighbors.add(neighbor);
+			}
+			board = neighbors.get(random.nextInt(neighbors.size()));
+		}
+		return board;
+	}
+
+	static Board goal(int dimension) {
+		int[][] blocks = new int[dimension][dimension];
+		for (int i = 0; i < dimension * dimension - 1; i++) {
+			blocks[i / dimension][i % dimension] = i + 1;
+		}
+		return new Board(blocks);
+	}
+
+	private static void assertValidSolution(Iterable<Board> solution, int moves) {
+		Board previous = null;
+		int boards = 0;
+		for (Board board : solution) {
+			if (previous != null) {
+				boolean adjacent = false;
+				for (Board neighbor : previous.neighbors()) {
+					adjacent |= neighbor.equals(board);
+				}
+				assertTrue(adjacent);
+			}
+			previous = board;
+			boards++;
+		}
+		assertEquals(moves + 1, boards);
+		assertEquals(goal(previous.dimension()), previous);
+	}
+}
@@ -0,0 +1,196 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+public class KdTreeTest {
+
+	@Test
+	public void testNearestNeighborsAndRadiusMatchBruteForce() {
+		Random random = new Random(4);
+		KdTree tree = new KdTree();
+		List<Point2D> points = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			Point2D p = new Point2D(random.nextInt(200) / 200.0, random.nextInt(200) / 200.0);
+			if (!tree.contains(p)) {
+				points.add(p);
+			}
+			tree.insert(p);
+		}
+		for (int q = 0; q < 100; q++) {
+			final Point2D p = new Point2D(random.nextDouble(), random.nextDouble());
+			List<Point2D> byDistance = new ArrayList<>(points);
+			Collections.sort(byDistance, new Comparator<Point2D>() {
+
+				@Override
+				public int compare(Point2D a, Point2D b) {
+					return Double.compare(p.distanceSquaredTo(a), p.distanceSquaredTo(b));
+				}
+			});
+			int k = 1 + random.nextInt(20);
+			int i = 0;
+			for (Point2D neighbor : tree.nearest(p, k)) {
+				assertEquals(p.distanceSquaredTo(byDistance.get(i++)), p.distanceSquaredTo(neighbor), 0d);
+			}
+			assertEquals(k, i);
+			double r = random.nextDouble() / 10;
+			List<Point2D> inRadius = new ArrayList<>();
+			for (Point2D point : points) {
+				if (p.distanceSquaredTo(point) <= r * r) {
+					inRadius.add(point);
+				}
+			}
+			assertEquals(StaticKdTreeTest.sorted(inRadius), StaticKdTreeTest.sorted(tree.withinRadius(p, r)));
+		}
+	}
+
+	@Test
+	public void testNearestNeighborsOfSmallSet() {
+		KdTree tree = new KdTree();
+		tree.insert(new Point2D(0.1, 0.1));
+		tree.insert(new Point2D(0.9, 0.9));
+		List<Point2D> nearest = StaticKdTreeTest.sorted(tree.nearest(new Point2D(0, 0), 5));
+		assertEquals(2, nearest.size());
+	}
+
+	@Test
+	public void testQueryCountersShowPruning() {
+		Random random = new Random(13);
+		KdTree tree = new KdTree();
+		for (int i = 0; i < 10000; i++) {
+			tree.insert(new Point2D(random.nextDouble(), random.nextDouble()));
+		}
+		QueryCounters counters = new QueryCounters();
+		Point2D p = new Point2D(0.5, 0.5);
+		assertEquals(tree.nearest(p), tree.nearest(p, counters));
+		assertTrue(counters.nodesVisited() > 0);
+		assertTrue(counters.nodesVisited() < 200);
+		assertTrue(counters.subtreesPruned() > 0);
+		counters.reset();
+		assertEquals(0, counters.nodesVisited());
+	}
+
+	@Test
+	public void testRangeAndRangeCountMatchPointSet() {
+		Random random = new Random(14);
+		KdTree tree = new KdTree();
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < 3000; i++) {
+			Point2D p = new Point2D(random.nextInt(100) / 100.0, random.nextInt(100) / 100.0);
+			tree.insert(p);
+			pointSet.insert(p);
+		}
+		for (int q = 0; q < 200; q++) {
+			double x = random.nextInt(100) / 100.0;
+			double y = random.nextInt(100) / 100.0;
+			RectHV rect = new RectHV(x / 2, y / 2, x, y);
+			List<Point2D> expected = StaticKdTreeTest.sorted(pointSet.range(rect));
+			assertEquals(expected, StaticKdTreeTest.sorted(tree.range(rect)));
+			assertEquals(expected.size(), tree.rangeCount(rect));
+		}
+		assertEquals(pointSet.size(), tree.rangeCount(new RectHV(0, 0, 1, 1)));
+	}
+
+	@Test
+	public void testDeleteAndReinsertMatchPointSet() {
+		Random random = new Random(18);
+		KdTree tree = new KdTree();
+		Set<Point2D> present = new HashSet<>();
+		for (int step = 0; step < 20000; step++) {
+			// a coarse grid, so points are often deleted and inserted again
+			Point2D p = new Point2D(random.nextInt(60) / 60.0, random.nextInt(60) / 60.0);
+			if (random.nextInt(3) == 0) {
+				tree.delete(p);
+				present.remove(p);
+			} else {
+				tree.insert(p);
+				present.add(p);
+			}
+			if (step % 2000 == 0) {
+				assertMatches(present, tree, random);
+			}
+		}
+		for (Point2D p : new ArrayList<>(present)) {
+			tree.delete(p);
+			present.remove(p);
+		}
+		assertTrue(tree.isEmpty());
+		assertEquals(null, tree.nearest(new Point2D(0.5, 0.5)));
+	}
+
+	private static void assertMatches(Set<Point2D> present, KdTree tree, Random random) {
+		PointSET pointSet = new PointSET();
+		for (Point2D p : present) {
+			pointSet.insert(p);
+		}
+		assertEquals(pointSet.size(), tree.size());
+		for (int q = 0; q < 50; q++) {
+			Point2D p = new Point2D(random.nextInt(60) / 60.0, random.nextInt(60) / 60.0);
+			assertEquals(pointSet.contains(p), tree.contains(p));
+			assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(tree.nearest(p)), 0d);
+			RectHV rect = new RectHV(p.x() / 2, p.y() / 2, p.x(), p.y());
+			List<Point2D> expected = StaticKdTreeTest.sorted(pointSet.range(rect));
+			assertEquals(expected, StaticKdTreeTest.sorted(tree.range(rect)));
+			assertEquals(expected.size(), tree.rangeCount(rect));
+		}
+	}
+
+	@Test
+	public void testSortedInsertsKeepHeightLogarithmic() {
+		int n = 1 << 14;
+		KdTree tree = new KdTree();
+		for (int i = 0; i < n; i++) {
+			tree.insert(new Point2D(i / (double) n, i / (double) n));
+		}
+		assertEquals(n, tree.size());
+		assertTrue("height " + tree.height(), tree.height() <= 3 * 14);
+		for (int i = 0; i < n; i += 2) {
+			tree.delete(new Point2D(i / (double) n, i / (double) n));
+		}
+		assertEquals(n / 2, tree.size());
+		assertTrue("height " + tree.height(), tree.height() <= 3 * 14);
+	}
+
+	@Test
+	public void testInsertAllMatchesSingleInserts() {
+		Random random = new Random(19);
+		KdTree tree = new KdTree();
+		PointSET pointSet = new PointSET();
+		for (int batch = 0; batch < 4; batch++) {
+			// batches both smaller and larger than half the set
+			List<Point2D> points = new ArrayList<>();
+			for (int i = 0; i < (batch % 2 == 0 ? 1500 : 200); i++) {
+				Point2D p = new Point2D(random.nextInt(80) / 80.0, random.nextInt(80) / 80.0);
+				points.add(p);
+				pointSet.insert(p);
+			}
+			tree.insertAll(points);
+			assertEquals(pointSet.size(), tree.size());
+			assertEquals(StaticKdTreeTest.sorted(pointSet.range(new RectHV(0, 0, 1, 1))),
+					StaticKdTreeTest.sorted(tree.range(new RectHV(0, 0, 1, 1))));
+		}
+	}
+
+	@Test
+	public void testRandomInsertsKeepHeightLogarithmic() {
+		Random random = new Random(20);
+		int n = 100000;
+		KdTree tree = new KdTree();
+		for (int i = 0; i < n; i++) {
+			tree.insert(new Point2D(random.nextDouble(), random.nextDouble()));
+		}
+		assertEquals(n, tree.size());
+		assertTrue("height " + tree.height(), tree.height() <= 1 + Math.log(n) / Math.log(1 / 0.7));
+	}
+}
@@ -0,0 +1,66 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LatticePercolationTest {
+
+	@Test
+	public void testSquareLatticeMatchesPercolation() {
+		int n = 20;
+		Random random = new Random(5);
+		LatticePercolation lattice = new LatticePercolation(new SquareLattice(n));
+		Percolation grid = new Percolation(n, FlatUnionFind::new, true);
+		for (int i = 0; i < n * n; i++) {
+			int site = random.nextInt(n * n);
+			assertEquals(grid.openSite(site), lattice.openSite(site));
+			assertEquals(grid.numberOfOpenSites(), lattice.numberOfOpenSites());
+		}
+		for (int site = 0; site < n * n; site++) {
+			assertEquals(grid.isFull(site / n + 1, site % n + 1), lattice.isFull(site));
+		}
+	}
+
+	@Test
+	public void testTriangularThresholdIsOneHalf() {
+		PercolationStats stats = new PercolationStats(new TriangularLattice(64), 100, 3L, null,
+				PercolationStats.TrialMode.PERMUTATION);
+		assertEquals(0.5, stats.mean(), 0.02);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsLatticeWithoutTopSites() {
+		new AdjacencyLattice(new int[][] { { 1 }, { 0 } }, new int[0], new int[] { 1 });
+	}
+
+	@Test
+	public void testTrialsOnDisconnectedLatticeFail() {
+		// sites 0 and 1 are not adjacent, so the top never reaches the bottom
+		Lattice lattice = new AdjacencyLattice(new int[][] { {}, {} }, new int[] { 0 }, new int[] { 1 });
+		for (PercolationStats.TrialMode mode : PercolationStats.TrialMode.values()) {
+			try {
+				new PercolationStats(lattice, 1, 1L, null, mode);
+				fail(mode.name());
+			} catch (IllegalArgumentException expected) {
+				// the trial stops once every site is open
+			}
+		}
+	}
+
+	@Test
+	public void testOpenSiteValidatesIndex() {
+		for (SitePercolation percolation : new SitePercolation[] { new Percolation(2),
+				new LatticePercolation(new SquareLattice(2)) }) {
+			for (int site : new int[] { -1, 4 }) {
+				try {
+					percolation.openSite(site);
+					fail("site " + site);
+				} catch (IllegalArgumentException expected) {
+					assertEquals(0, percolation.numberOfOpenSites());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+public class MappedKdTreeTest {
+
+	@Test
+	public void testWriteOpenRoundTrip() throws IOException {
+		Random random = new Random(9);
+		Point2D[] points = new Point2D[2000];
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < points.length; i++) {
+			// a coarse grid, so there are duplicates and ties on split lines
+			points[i] = new Point2D(random.nextInt(64) / 64.0, random.nextInt(64) / 64.0);
+			pointSet.insert(points[i]);
+		}
+		StaticKdTree tree = new StaticKdTree(points);
+		Path file = Files.createTempFile("MappedKdTreeTest", ".kdt");
+		try {
+			tree.write(file);
+			MappedKdTree mapped = MappedKdTree.open(file);
+			assertEquals(pointSet.size(), mapped.size());
+			for (int i = 0; i < tree.size(); i++) {
+				assertEquals(tree.x(i), mapped.x(i), 0d);
+				assertEquals(tree.y(i), mapped.y(i), 0d);
+			}
+			for (int q = 0; q < 200; q++) {
+				Point2D p = new Point2D(random.nextDouble(), random.nextDouble());
+				assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(mapped.nearest(p)), 0d);
+				assertTrue(mapped.contains(points[random.nextInt(points.length)]));
+				assertFalse(mapped.contains(new Point2D(p.x(), 2)));
+				double x = random.nextDouble();
+				double y = random.nextDouble();
+				RectHV rect = new RectHV(x, y, Math.min(1, x + 0.2), Math.min(1, y + 0.2));
+				assertEquals(sorted(pointSet.range(rect)), sorted(mapped.range(rect)));
+				assertEquals(sorted(tree.range(rect)), sorted(mapped.range(rect)));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenRejectsOtherFiles() throws IOException {
+		Path file = Files.createTempFile("MappedKdTreeTest", ".kdt");
+		try {
+			Files.write(file, new byte[32]);
+			MappedKdTree.open(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static List<Point2D> sorted(Iterable<Point2D> points) {
+		List<Point2D> list = new ArrayList<>();
+		for (Point2D p : points) {
+			list.add(p);
+		}
+		Collections.sort(list);
+		return list;
+	}
+}
@@ -0,0 +1,73 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PatternDatabaseTest {
+
+	private static final PatternDatabase EIGHT_PUZZLE = PatternDatabase.build(3);
+
+	@Test
+	public void testSolverMovesMatchManhattan() {
+		Random random = new Random(25);
+		for (int round = 0; round < 30; round++) {
+			Board board = IdaSolverTest.scramble(3, 10 + 2 * round, random);
+			int moves = IdaSolverTest.optimalMoves(new Solver(board));
+			assertEquals(moves, IdaSolverTest.optimalMoves(new Solver(board, EIGHT_PUZZLE)));
+			assertEquals(moves, new IdaSolver(board).moves());
+		}
+	}
+
+	@Test
+	public void testEstimateIsAdmissibleAndDominatesManhattan() {
+		Random random = new Random(26);
+		assertEquals(0, EIGHT_PUZZLE.estimate(IdaSolverTest.goal(3)));
+		for (int round = 0; round < 30; round++) {
+			Board board = IdaSolverTest.scramble(3, 5 + round, random);
+			int estimate = EIGHT_PUZZLE.estimate(board);
+			assertTrue(estimate >= board.manhattan());
+			assertTrue(estimate <= new IdaSolver(board).moves());
+		}
+	}
+
+	@Test
+	public void testWriteOpenRoundTrip() throws IOException {
+		Path file = Files.createTempFile("PatternDatabaseTest", ".pdb");
+		try {
+			EIGHT_PUZZLE.write(file);
+			PatternDatabase opened = PatternDatabase.open(file);
+			assertEquals(3, opened.dimension());
+			Random random = new Random(27);
+			for (int round = 0; round < 200; round++) {
+				Board board = IdaSolverTest.scramble(3, 1 + round, random);
+				assertEquals(EIGHT_PUZZLE.estimate(board), opened.estimate(board));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenRejectsTruncatedFile() throws IOException {
+		Path file = Files.createTempFile("PatternDatabaseTest", ".pdb");
+		try {
+			EIGHT_PUZZLE.write(file);
+			byte[] bytes = Files.readAllBytes(file);
+			Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+			PatternDatabase.open(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOverlappingGroupsRejected() {
+		PatternDatabase.build(3, new int[][] { { 1, 2 }, { 2, 3 } });
+	}
+}
@@ -1,3 +1,8 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.Test;
 
 public class PercolationStatsTest {
@@ -7,10 +12,60 @@ public class PercolationStatsTest {
 		findPercolationParameters(200, 100);
 	}
 	
+	@Test
+	public void testParallelTrialsMatchSerialForSeed() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PercolationStats serial = new PercolationStats(50, 64, 42L);
+			PercolationStats parallel = new PercolationStats(50, 64, 42L, pool);
+			assertEquals(serial.mean(), parallel.mean(), 0d);
+			assertEquals(serial.stddev(), parallel.stddev(), 0d);
+			assertEquals(serial.confidenceLo(), parallel.confidenceLo(), 0d);
+			assertEquals(serial.confidenceHi(), parallel.confidenceHi(), 0d);
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void testPermutationTrialsMatchAcrossPools() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PercolationStats serial = new PercolationStats(50, 64, 42L, null,
+					PercolationStats.TrialMode.PERMUTATION);
+			PercolationStats parallel = new PercolationStats(50, 64, 42L, pool,
+					PercolationStats.TrialMode.PERMUTATION);
+			assertEquals(serial.mean(), parallel.mean(), 0d);
+			assertEquals(serial.stddev(), parallel.stddev(), 0d);
+			assertEquals(0.593, serial.mean(), 0.02);
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void testUntilConvergedStopsAtTargetHalfWidth() {
+		final int[] reported = new int[1];
+		PercolationStats streamed = PercolationStats.untilConverged(50, 0.005, 10000, 7L,
+				new PercolationStats.ProgressListener() {
+
+					@Override
+					public void onProgress(PercolationStats partial) {
+						reported[0] = partial.trials();
+					}
+				});
+		assertTrue(streamed.trials() < 10000);
+		assertEquals(streamed.trials(), reported[0]);
+		assertTrue(streamed.confidenceHi() - streamed.mean() < 0.005);
+		PercolationStats fixed = new PercolationStats(50, streamed.trials(), 7L);
+		assertEquals(fixed.mean(), streamed.mean(), 0d);
+		assertEquals(fixed.stddev(), streamed.stddev(), 0d);
+	}
+	
 	private void findPercolationParameters(int n, int trials) {
 		PercolationStats stats = new PercolationStats(n, trials);
 		System.out.println("Mean: "+stats.mean());
 		System.out.println("stdDev: "+stats.stddev());
-		System.out.println(String.format("95% confidence interval: [%d, %d]", stats.confidenceLo(), stats.confidenceHi()));
+		System.out.println(String.format("95%% confidence interval: [%f, %f]", stats.confidenceLo(), stats.confidenceHi()));
 	}
 }
@@ -0,0 +1,66 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class PercolationTest {
+
+	@Test
+	public void testOpenAllReportsFirstPercolatingStep() {
+		Percolation percolation = new Percolation(3);
+		// the repeated site 4 counts as a step
+		assertFalse(percolation.openAll(new int[] { 0, 4, 4 }));
+		assertEquals(-1, percolation.firstPercolatingStep());
+		assertTrue(percolation.openAll(new int[] { 3, 7, 8 }));
+		assertEquals(5, percolation.firstPercolatingStep());
+		assertEquals(5, percolation.numberOfOpenSites());
+		assertTrue(percolation.isOpen(3, 3));
+	}
+
+	@Test
+	public void testOpenAllValidatesBeforeOpening() {
+		Percolation percolation = new Percolation(3);
+		try {
+			percolation.openAll(new int[] { 0, 9 });
+			fail();
+		} catch (IllegalArgumentException expected) {
+			assertEquals(0, percolation.numberOfOpenSites());
+		}
+	}
+
+	@Test
+	public void testFlatIndexMatchesRowAndColumn() {
+		Percolation byIndex = new Percolation(4);
+		Percolation byRowAndColumn = new Percolation(4);
+		for (int site : new int[] { 1, 5, 6, 10, 14 }) {
+			byIndex.open(site);
+			byRowAndColumn.open(site / 4 + 1, site % 4 + 1);
+			assertEquals(byRowAndColumn.percolates(), byIndex.percolates());
+		}
+		assertTrue(byIndex.percolates());
+		for (int row = 1; row <= 4; row++) {
+			for (int col = 1; col <= 4; col++) {
+				assertEquals(byRowAndColumn.isFull(row, col), byIndex.isFull(row, col));
+			}
+		}
+	}
+
+	@Test
+	public void testBackwashFreeModeKeepsBottomOnlySitesEmpty() {
+		Percolation legacy = new Percolation(3, FlatUnionFind::new, false);
+		Percolation backwashFree = new Percolation(3, FlatUnionFind::new, true);
+		for (Percolation percolation : new Percolation[] { legacy, backwashFree }) {
+			// column 1 percolates; (3, 3) touches only the bottom row
+			percolation.open(1, 1);
+			percolation.open(2, 1);
+			percolation.open(3, 1);
+			percolation.open(3, 3);
+			assertTrue(percolation.percolates());
+			assertTrue(percolation.isFull(3, 1));
+		}
+		assertTrue(legacy.isFull(3, 3));
+		assertFalse(backwashFree.isFull(3, 3));
+	}
+}
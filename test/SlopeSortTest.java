@@ -0,0 +1,89 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SlopeSortTest {
+
+	@Test
+	public void testSortMatchesSlopeToOnSmallCoordinates() {
+		Random random = new Random(22);
+		Point pivot = new Point(50, 50);
+		int n = 2000;
+		long[] dxs = new long[n];
+		long[] dys = new long[n];
+		int[] order = new int[n];
+		double[] slopes = new double[n];
+		for (int i = 0; i < n; i++) {
+			Point p = new Point(random.nextInt(101), random.nextInt(101));
+			SlopeSort.direction((long) p.x() - pivot.x(), (long) p.y() - pivot.y(), dxs, dys, i);
+			order[i] = i;
+			slopes[i] = pivot.slopeTo(p);
+		}
+		SlopeSort.sort(order, dxs, dys, 0, n);
+		double[] sortedSlopes = new double[n];
+		for (int i = 0; i < n; i++) {
+			sortedSlopes[i] = slopes[order[i]];
+		}
+		double[] expected = slopes.clone();
+		Arrays.sort(expected);
+		assertArrayEquals(expected, sortedSlopes, 0d);
+	}
+
+	@Test
+	public void testSortIsExactOnLargeCoordinates() {
+		Random random = new Random(23);
+		int n = 5000;
+		long[] dxs = new long[n];
+		long[] dys = new long[n];
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			// differences of two ints span more than an int
+			long dx = (long) random.nextInt() - random.nextInt();
+			long dy = i % 7 == 0 ? 3 * dx : (long) random.nextInt() - random.nextInt();
+			SlopeSort.direction(dx, dy, dxs, dys, i);
+			order[i] = n - 1 - i;
+		}
+		SlopeSort.sort(order, dxs, dys, 0, n);
+		int[] seen = new int[n];
+		for (int i = 0; i < n; i++) {
+			seen[order[i]]++;
+			if (i > 0) {
+				assertTrue(SlopeSort.compare(dxs[order[i - 1]], dys[order[i - 1]], dxs[order[i]], dys[order[i]]) <= 0);
+			}
+		}
+		int[] once = new int[n];
+		Arrays.fill(once, 1);
+		assertArrayEquals(once, seen);
+	}
+
+	@Test
+	public void testCompareSeparatesSlopesThatDoublesCannot() {
+		long a = Integer.MAX_VALUE;
+		// (a - 1) / a and (a - 2) / (a - 1) round to the same double
+		assertEquals((a - 1) / (double) a, (a - 2) / (double) (a - 1), 1e-15);
+		assertEquals(1, SlopeSort.compare(a, a - 1, a - 1, a - 2));
+		assertEquals(-1, Integer.signum(SlopeSort.compareDirections(-(a - 1), -(a - 2), a, a - 1)));
+		assertEquals(0, SlopeSort.compareDirections(-4 * a, -2 * a, 2, 1));
+		// the pivot sorts first and vertical directions last
+		assertTrue(SlopeSort.compareDirections(0, 0, 1, -a) < 0);
+		assertTrue(SlopeSort.compareDirections(0, -5, 1, a) > 0);
+		assertEquals(0, SlopeSort.compareDirections(0, -5, 0, 7));
+	}
+
+	@Test
+	public void testSlopeOrderMatchesSlopeTo() {
+		Random random = new Random(24);
+		for (int i = 0; i < 10000; i++) {
+			Point p = new Point(random.nextInt(21), random.nextInt(21));
+			Point q = new Point(random.nextInt(21), random.nextInt(21));
+			Point r = new Point(random.nextInt(21), random.nextInt(21));
+			assertEquals(Integer.signum(Double.compare(p.slopeTo(q), p.slopeTo(r))),
+					Integer.signum(p.slopeOrder().compare(q, r)));
+		}
+	}
+}
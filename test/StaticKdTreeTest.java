@@ -0,0 +1,96 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+public class StaticKdTreeTest {
+
+	@Test
+	public void testMatchesPointSet() {
+		Random random = new Random(2);
+		Point2D[] points = new Point2D[3000];
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new Point2D(random.nextInt(100) / 100.0, random.nextInt(100) / 100.0);
+			pointSet.insert(points[i]);
+		}
+		StaticKdTree tree = new StaticKdTree(points);
+		assertEquals(pointSet.size(), tree.size());
+		for (int q = 0; q < 300; q++) {
+			Point2D p = new Point2D(random.nextDouble(), random.nextDouble());
+			assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(tree.nearest(p)), 0d);
+			assertTrue(tree.contains(points[random.nextInt(points.length)]));
+			assertEquals(pointSet.contains(p), tree.contains(p));
+			RectHV rect = new RectHV(p.x() / 2, p.y() / 2, p.x(), p.y());
+			assertEquals(sorted(pointSet.range(rect)), sorted(tree.range(rect)));
+		}
+	}
+
+	@Test
+	public void testEmptyTree() {
+		StaticKdTree tree = new StaticKdTree(new double[0], new double[0]);
+		assertTrue(tree.isEmpty());
+		assertEquals(null, tree.nearest(new Point2D(0.5, 0.5)));
+		assertFalse(tree.range(new RectHV(0, 0, 1, 1)).iterator().hasNext());
+	}
+
+	@Test
+	public void testBatchQueriesOnSnapshotMatchSingleQueries() {
+		Random random = new Random(6);
+		KdTree kdTree = new KdTree();
+		for (int i = 0; i < 2000; i++) {
+			kdTree.insert(new Point2D(random.nextDouble(), random.nextDouble()));
+		}
+		StaticKdTree tree = kdTree.snapshot();
+		assertEquals(kdTree.size(), tree.size());
+		double[] qx = new double[1000];
+		double[] qy = new double[1000];
+		RectHV[] rects = new RectHV[qx.length];
+		for (int i = 0; i < qx.length; i++) {
+			qx[i] = random.nextDouble();
+			qy[i] = random.nextDouble();
+			rects[i] = new RectHV(qx[i] / 2, qy[i] / 2, qx[i], qy[i]);
+		}
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			int[] nearest = new int[qx.length];
+			tree.nearest(qx, qy, nearest, pool);
+			int[] offsets = new int[rects.length + 1];
+			// too small a buffer only fills the offsets
+			int total = tree.range(rects, offsets, new int[0], pool);
+			int[] results = new int[total];
+			assertEquals(total, tree.range(rects, offsets, results, pool));
+			for (int i = 0; i < qx.length; i++) {
+				Point2D p = new Point2D(qx[i], qy[i]);
+				assertEquals(p.distanceSquaredTo(kdTree.nearest(p)),
+						p.distanceSquaredTo(new Point2D(tree.x(nearest[i]), tree.y(nearest[i]))), 0d);
+				List<Point2D> batch = new ArrayList<>();
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+					batch.add(new Point2D(tree.x(results[j]), tree.y(results[j])));
+				}
+				assertEquals(sorted(kdTree.range(rects[i])), sorted(batch));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	static List<Point2D> sorted(Iterable<Point2D> points) {
+		List<Point2D> list = new ArrayList<>();
+		for (Point2D p : points) {
+			list.add(p);
+		}
+		Collections.sort(list);
+		return list;
+	}
+}
@@ -0,0 +1,49 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StreamingCollinearPointsTest {
+
+	@Test
+	public void testEveryPrefixMatchesFastCollinearPoints() {
+		Random random = new Random(21);
+		for (int round = 0; round < 5; round++) {
+			Point[] points = HashCollinearPointsTest.distinctPoints(random, 60, 10 + round);
+			StreamingCollinearPoints streaming = new StreamingCollinearPoints();
+			for (int i = 0; i < points.length; i++) {
+				streaming.add(points[i]);
+				assertEquals(i + 1, streaming.size());
+				Point[] prefix = Arrays.copyOf(points, i + 1);
+				assertEquals(HashCollinearPointsTest.sorted(new FastCollinearPoints(prefix).segments()),
+						HashCollinearPointsTest.sorted(streaming.segments()));
+			}
+		}
+	}
+
+	@Test
+	public void testAddReportsCreatedAndExtendedSegments() {
+		StreamingCollinearPoints streaming = new StreamingCollinearPoints();
+		assertTrue(streaming.add(new Point(1, 1)).isEmpty());
+		assertTrue(streaming.add(new Point(2, 2)).isEmpty());
+		assertTrue(streaming.add(new Point(3, 3)).isEmpty());
+		List<LineSegment> created = streaming.add(new Point(4, 4));
+		assertEquals(1, created.size());
+		assertEquals("(1, 1) -> (4, 4)", created.get(0).toString());
+		List<LineSegment> extended = streaming.add(new Point(0, 0));
+		assertEquals(1, extended.size());
+		assertEquals("(0, 0) -> (4, 4)", extended.get(0).toString());
+		assertEquals(1, streaming.numberOfSegments());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRepeatedPointRejected() {
+		StreamingCollinearPoints streaming = new StreamingCollinearPoints();
+		streaming.add(new Point(1, 2));
+		streaming.add(new Point(1, 2));
+	}
+}
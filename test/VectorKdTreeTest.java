@@ -0,0 +1,124 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+
+public class VectorKdTreeTest {
+
+	@Test
+	public void testNearestAndRangeMatchBruteForce() {
+		Random random = new Random(15);
+		for (int dimension = 3; dimension <= 5; dimension++) {
+			double[] coords = new double[2000 * dimension];
+			for (int i = 0; i < coords.length; i++) {
+				coords[i] = random.nextInt(20) / 20.0;
+			}
+			VectorKdTree tree = new VectorKdTree(dimension, coords);
+			for (int q = 0; q < 50; q++) {
+				double[] query = new double[dimension];
+				double[] min = new double[dimension];
+				double[] max = new double[dimension];
+				for (int axis = 0; axis < dimension; axis++) {
+					query[axis] = random.nextDouble();
+					min[axis] = query[axis] / 2;
+					max[axis] = query[axis];
+				}
+				double[] distances = new double[tree.size()];
+				int inBox = 0;
+				for (int i = 0; i < tree.size(); i++) {
+					distances[i] = distance(tree, i, query);
+					boolean inside = true;
+					for (int axis = 0; axis < dimension; axis++) {
+						double value = tree.coordinate(i, axis);
+						inside &= value >= min[axis] && value <= max[axis];
+					}
+					inBox += inside ? 1 : 0;
+				}
+				Arrays.sort(distances);
+				int k = 1 + random.nextInt(10);
+				int[] nearest = tree.nearest(query, k);
+				assertEquals(k, nearest.length);
+				for (int i = 0; i < k; i++) {
+					assertEquals(distances[i], distance(tree, nearest[i], query), 0d);
+				}
+				int[] range = tree.range(min, max);
+				assertEquals(inBox, range.length);
+				for (int index : range) {
+					for (int axis = 0; axis < dimension; axis++) {
+						assertTrue(tree.coordinate(index, axis) >= min[axis] && tree.coordinate(index, axis) <= max[axis]);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testApproximateNearestStaysWithinEpsilon() {
+		Random random = new Random(16);
+		double[] coords = new double[5000 * 4];
+		for (int i = 0; i < coords.length; i++) {
+			coords[i] = random.nextDouble();
+		}
+		VectorKdTree tree = new VectorKdTree(4, coords);
+		double epsilon = 0.5;
+		for (int q = 0; q < 100; q++) {
+			double[] query = { random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble() };
+			double exact = Math.sqrt(distance(tree, tree.nearest(query), query));
+			double approximate = Math.sqrt(distance(tree, tree.nearest(query, epsilon), query));
+			assertTrue(approximate <= (1 + epsilon) * exact + 1e-12);
+		}
+	}
+
+	@Test
+	public void testPlanarQueriesMatchPointSet() {
+		Random random = new Random(17);
+		Point2D[] points = new Point2D[2000];
+		PointSET pointSet = new PointSET();
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new Point2D(random.nextInt(100) / 100.0, random.nextInt(100) / 100.0);
+			pointSet.insert(points[i]);
+		}
+		VectorKdTree tree = new VectorKdTree(points);
+		for (int q = 0; q < 200; q++) {
+			Point2D p = new Point2D(random.nextDouble(), random.nextDouble());
+			assertEquals(p.distanceSquaredTo(pointSet.nearest(p)), p.distanceSquaredTo(tree.nearest(p)), 0d);
+			assertTrue(tree.contains(new double[] { points[q].x(), points[q].y() }));
+			RectHV rect = new RectHV(p.x() / 2, p.y() / 2, p.x(), p.y());
+			// the tree keeps duplicates, so compare the distinct points
+			assertEquals(StaticKdTreeTest.sorted(pointSet.range(rect)), distinct(tree.range(rect)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPlanarQueryOnHigherDimensionRejected() {
+		new VectorKdTree(3, new double[3]).nearest(new Point2D(0, 0));
+	}
+
+	private static double distance(VectorKdTree tree, int index, double[] query) {
+		double distance = 0;
+		for (int axis = 0; axis < query.length; axis++) {
+			double d = tree.coordinate(index, axis) - query[axis];
+			distance += d * d;
+		}
+		return distance;
+	}
+
+	private static List<Point2D> distinct(Iterable<Point2D> points) {
+		List<Point2D> sorted = StaticKdTreeTest.sorted(points);
+		List<Point2D> distinct = new ArrayList<>();
+		for (Point2D p : sorted) {
+			if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(p)) {
+				distinct.add(p);
+			}
+		}
+		return distinct;
+	}
+}